@@ -0,0 +1,80 @@
+package com.payu.assessment.bookcatalogue.benchmark;
+
+import com.payu.assessment.bookcatalogue.BookCatalogueApiApplication;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookLookupBenchmark {
+
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"10000", "100000"})
+    public int books;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--catalogue.cache.isbn.max-size=" + books);
+        bookService = context.getBean(BookService.class);
+
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        LocalDate publishDate = LocalDate.of(2025, 10, 24);
+        List<Book> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < books; i++) {
+            batch.add(new Book("Book " + i, isbn(i), publishDate, (double) (i % 500), BookType.values()[i % 4]));
+            if (batch.size() == SEED_BATCH) {
+                bookRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        bookRepository.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Book getBookByIsbn_database() {
+        return bookService.getBookByIsbn(randomIsbn());
+    }
+
+    @Benchmark
+    public BookResponse getBookResponseByIsbn_cached() {
+        return bookService.getBookResponseByIsbn(randomIsbn());
+    }
+
+    private String randomIsbn() {
+        return isbn(ThreadLocalRandom.current().nextInt(books));
+    }
+
+    private static String isbn(int i) {
+        return "978-" + i;
+    }
+}
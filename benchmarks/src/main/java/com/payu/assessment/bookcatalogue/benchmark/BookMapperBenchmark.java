@@ -0,0 +1,51 @@
+package com.payu.assessment.bookcatalogue.benchmark;
+
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.util.BookMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMapperBenchmark {
+
+    private Book book;
+    private BookRequest request;
+    private BookRequest alternateRequest;
+    private boolean alternate;
+
+    @Setup
+    public void setUp() {
+        LocalDate publishDate = LocalDate.of(2025, 10, 24);
+        book = new Book("Effective Java", "978-0134685991", publishDate, 149.99, BookType.HARDCOVER);
+        request = new BookRequest("Effective Java", "978-0134685991", publishDate, 149.99, BookType.HARDCOVER);
+        alternateRequest = new BookRequest("Effective Java 3rd", "978-0134685991", publishDate.plusDays(1),
+                129.99, BookType.SOFTCOVER);
+    }
+
+    @Benchmark
+    public BookResponse toResponse() {
+        return BookMapper.toResponse(book);
+    }
+
+    @Benchmark
+    public Book fromRequest() {
+        return BookMapper.fromRequest(request);
+    }
+
+    @Benchmark
+    public boolean updateFromRequest() {
+        // Alternate between two requests so every call takes the "changed" path
+        alternate = !alternate;
+        return BookMapper.updateFromRequest(book, alternate ? alternateRequest : request);
+    }
+}
@@ -0,0 +1,92 @@
+package com.payu.assessment.bookcatalogue.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payu.assessment.bookcatalogue.cache.BookResponseBytesCache;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookResponseSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookResponse> responses;
+    private BookResponse hotBook;
+    private BookResponseBytesCache bytesCache;
+
+    @Setup
+    public void setUp() {
+        // Same builder Spring MVC uses, so the @JsonFormat date handling matches production
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responses = new ArrayList<>(size);
+        LocalDate publishDate = LocalDate.of(2025, 10, 24);
+        for (int i = 0; i < size; i++) {
+            responses.add(new BookResponse("Book " + i, "978-" + i, publishDate.minusDays(i % 3650),
+                    (double) (i % 500), BookType.values()[i % 4]));
+        }
+        hotBook = new BookResponse("Effective Java", "978-0134685991", publishDate, 149.99, BookType.HARDCOVER,
+                1L, 1L, null);
+        bytesCache = new BookResponseBytesCache(objectMapper, 1000);
+    }
+
+    @Benchmark
+    public byte[] writeSingle() throws IOException {
+        return objectMapper.writeValueAsBytes(hotBook);
+    }
+
+    @Benchmark
+    public byte[] writeSingleCached() {
+        // What GET /api/books/isbn/{isbn} does for a hot title: a version check instead of Jackson
+        return bytesCache.get(hotBook).getJson();
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public long writeStreaming() throws IOException {
+        // Mirrors GET /api/books/stream: one generator, one object at a time
+        CountingOutputStream out = new CountingOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (BookResponse response : responses) {
+                generator.writeObject(response);
+            }
+            generator.writeEndArray();
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.payu.assessment.bookcatalogue.benchmark;
+
+import com.payu.assessment.bookcatalogue.BookCatalogueApiApplication;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.service.BookImportService;
+import com.payu.assessment.bookcatalogue.store.BookStore;
+import com.payu.assessment.bookcatalogue.util.BookMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ISBN lookups from the columnar store against the JPA query they replace. Setup prints the store's
+// off-heap bytes per book for the same catalogue.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=2g")
+public class BookStoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int books;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private BookStore bookStore;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--catalogue.store.engine=columnar",
+                        "--catalogue.store.initial-capacity=" + books);
+        bookRepository = context.getBean(BookRepository.class);
+        bookStore = context.getBean(BookStore.class);
+
+        // Imported rather than saved directly, so the store receives every book as a change
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < books; i++) {
+            ndjson.append("{\"name\":\"Book ").append(i)
+                    .append("\",\"isbn\":\"").append(isbn(i))
+                    .append("\",\"publishDate\":\"24/10/2025\",\"price\":").append(i % 500)
+                    .append(",\"bookType\":\"EBOOK\"}\n");
+        }
+        context.getBean(BookImportService.class).importBooks(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON);
+
+        while (!bookStore.isReady() || bookStore.size() < books) {
+            Thread.onSpinWait();
+        }
+        System.out.printf("%n%d books in the columnar store: %d off-heap bytes, %.1f bytes per book%n",
+                bookStore.size(), bookStore.bytesUsed(), (double) bookStore.bytesUsed() / bookStore.size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookResponse findByIsbn_jpa() {
+        return bookRepository.findByIsbn(randomIsbn()).map(BookMapper::toResponse).orElse(null);
+    }
+
+    @Benchmark
+    public BookResponse findByIsbn_columnar() {
+        return bookStore.findByIsbn(randomIsbn()).orElse(null);
+    }
+
+    private String randomIsbn() {
+        return isbn(ThreadLocalRandom.current().nextInt(books));
+    }
+
+    private static String isbn(int i) {
+        return "978-" + i;
+    }
+}
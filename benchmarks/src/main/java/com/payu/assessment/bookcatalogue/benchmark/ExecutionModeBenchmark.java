@@ -0,0 +1,168 @@
+package com.payu.assessment.bookcatalogue.benchmark;
+
+import com.payu.assessment.bookcatalogue.BookCatalogueApiApplication;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Latency of a cached ISBN lookup while inFlight slow searches wait on a small connection pool.
+// The CPU stays mostly idle; in platform mode the searches hold every Tomcat worker and the cheap
+// request queues behind them. The virtual variant needs a Java 21 runtime.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final String HOT_ISBN = "978-0";
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"1000"})
+    public int inFlight;
+
+    @Param({"200"})
+    public int dbLatencyMillis;
+
+    @Param({"20"})
+    public int connections;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI hotLookup;
+    private URI slowSearch;
+    private Thread loadPump;
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SlowQueries.latencyMillis = dbLatencyMillis;
+        context = new SpringApplicationBuilder(BookCatalogueApiApplication.class, SlowQueries.class)
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--catalogue.execution.mode=" + mode,
+                        "--server.tomcat.max-connections=20000",
+                        "--spring.datasource.hikari.maximum-pool-size=" + connections,
+                        // One load generator is one client; the limiter would shed the load being measured
+                        "--catalogue.rate-limit.enabled=false");
+
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            books.add(new Book("Book " + i, "978-" + i, LocalDate.of(2025, 10, 24), (double) i, BookType.EBOOK));
+        }
+        bookRepository.saveAll(books);
+
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        hotLookup = URI.create(base + "/api/books/isbn/" + HOT_ISBN);
+        slowSearch = URI.create(base + "/api/books/search?name=Book&size=5");
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // Prime the ISBN cache so the measured request never touches the database
+        client.send(HttpRequest.newBuilder(hotLookup).build(), HttpResponse.BodyHandlers.discarding());
+
+        running = true;
+        Semaphore permits = new Semaphore(inFlight);
+        loadPump = new Thread(() -> {
+            while (running) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                client.sendAsync(HttpRequest.newBuilder(slowSearch).build(), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> permits.release());
+            }
+        }, "slow-search-load");
+        loadPump.setDaemon(true);
+        loadPump.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        loadPump.interrupt();
+        loadPump.join(1000);
+        context.close();
+    }
+
+    @Benchmark
+    public int cachedLookupUnderSlowDatabaseLoad() throws Exception {
+        return client.send(HttpRequest.newBuilder(hotLookup).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    // Delays every query so each search holds its request thread the way a slow database would
+    public static class SlowQueries implements BeanPostProcessor {
+
+        static volatile int latencyMillis;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, (dataSource, method, args) -> {
+                Object result = invoke(bean, method, args);
+                return method.getName().equals("getConnection") ? slowConnection((Connection) result) : result;
+            });
+        }
+
+        private static Connection slowConnection(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return result instanceof PreparedStatement ? slowStatement((PreparedStatement) result) : result;
+            });
+        }
+
+        private static PreparedStatement slowStatement(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                if (method.getName().equals("executeQuery")) {
+                    Thread.sleep(latencyMillis);
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.payu.assessment.bookcatalogue.loadtest;
+
+import com.payu.assessment.bookcatalogue.model.BookType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Random;
+
+// Writes a deterministic catalogue straight through JDBC: 10M rows through the API would take hours.
+// Book i always gets the same ISBN, so the scenario can address any seeded book without a lookup.
+public class CatalogueSeeder {
+
+    static final String[] ADJECTIVES = {"Effective", "Modern", "Practical", "Silent", "Hidden", "Clean",
+            "Concurrent", "Reactive", "Lost", "Distant", "Golden", "Functional", "Secret", "Pragmatic", "Broken"};
+    static final String[] NOUNS = {"Java", "Kingdom", "Garden", "Patterns", "Ocean", "Systems", "Code",
+            "Empire", "River", "Algorithms", "Mountain", "Streams", "Architecture", "Library", "Journey"};
+
+    private static final int BATCH_SIZE = 5000;
+    private static final long EPOCH_DAY_1950 = LocalDate.of(1950, 1, 1).toEpochDay();
+    private static final long EPOCH_DAY_2025 = LocalDate.of(2025, 12, 31).toEpochDay();
+
+    private final DataSource dataSource;
+    private final long seed;
+
+    public CatalogueSeeder(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+    }
+
+    public static String isbn(long index) {
+        return String.format("LT-%010d", index);
+    }
+
+    public void seed(long books) throws SQLException {
+        removeRunBooks();
+        long existing = count();
+        if (existing == books) {
+            System.out.printf("Reusing catalogue of %,d books%n", books);
+            return;
+        }
+        if (existing != 0) {
+            throw new IllegalStateException("Data directory holds " + existing + " books, not " + books
+                    + "; pass a different --data-dir or delete it");
+        }
+
+        long started = System.nanoTime();
+        Random random = new Random(seed);
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("insert into books "
+                     + "(id, name, isbn, publish_date, price, book_type, version, updated_at) "
+                     + "values (?, ?, ?, ?, ?, ?, 0, ?)")) {
+            connection.setAutoCommit(false);
+            for (long i = 1; i <= books; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + NOUNS[random.nextInt(NOUNS.length)] + " " + i);
+                insert.setString(3, isbn(i));
+                insert.setDate(4, Date.valueOf(LocalDate.ofEpochDay(
+                        EPOCH_DAY_1950 + (long) (random.nextDouble() * (EPOCH_DAY_2025 - EPOCH_DAY_1950)))));
+                insert.setDouble(5, random.nextInt(20000) / 100.0);
+                insert.setString(6, BookType.values()[random.nextInt(BookType.values().length)].name());
+                insert.setTimestamp(7, now);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == books) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (i % 1_000_000 == 0) {
+                    System.out.printf("Seeded %,d books%n", i);
+                }
+            }
+
+            // Past every seeded id, with room for Hibernate's pooled allocation of 50
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("alter sequence books_seq restart with " + (books + 100));
+            }
+            connection.commit();
+        }
+        System.out.printf("Seeded %,d books in %d s%n", books, (System.nanoTime() - started) / 1_000_000_000L);
+    }
+
+    // Books a previous run created and did not get round to deleting; their ISBNs would be reissued
+    private void removeRunBooks() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            int removed = statement.executeUpdate("delete from books where isbn like '" + Scenario.NEW_ISBN_PREFIX + "%'");
+            if (removed > 0) {
+                System.out.printf("Removed %,d books left by an earlier run%n", removed);
+            }
+        }
+    }
+
+    private long count() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select count(*) from books")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
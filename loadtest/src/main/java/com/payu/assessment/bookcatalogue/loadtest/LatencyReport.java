@@ -0,0 +1,146 @@
+package com.payu.assessment.bookcatalogue.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Percentiles, throughput and SLO verdicts for one run: a table on stdout, a JSON summary for
+// comparing runs, and one .hgrm percentile distribution per call for plotting.
+public class LatencyReport {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final OpenLoadGenerator.Result result;
+    private final Map<String, Operation> operations;
+    private final double maxErrorRate;
+    private final double minThroughputRatio;
+    private final List<String> failures = new ArrayList<>();
+
+    public LatencyReport(OpenLoadGenerator.Result result, Map<String, Operation> operations, LoadTestOptions options) {
+        this.result = result;
+        this.operations = operations;
+        this.maxErrorRate = Double.parseDouble(optional(options.slo("error-rate"), "0.001"));
+        this.minThroughputRatio = Double.parseDouble(optional(options.slo("throughput-ratio"), "0.99"));
+        evaluate();
+    }
+
+    public boolean passed() {
+        return failures.isEmpty();
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-12s %9s %9s %7s %9s %9s %9s %9s  %s%n",
+                "call", "count", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms", "SLO p99/p999 ms");
+        result.getLatencies().forEach((name, histogram) -> {
+            Operation operation = operations.get(name);
+            out.printf(Locale.ROOT, "%-12s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    name, histogram.getTotalCount(), histogram.getTotalCount() / seconds(), errors(name),
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0,
+                    operation.getP99Objective().toMillis() + "/" + operation.getP999Objective().toMillis());
+        });
+        out.printf(Locale.ROOT, "%nTarget %d req/s, achieved %.1f req/s, %d errors (%d dropped at the in-flight cap)%n",
+                result.getTargetRate(), total() / seconds(), totalErrors(), result.getDropped());
+        if (failures.isEmpty()) {
+            out.println("SLO PASS");
+        } else {
+            out.println("SLO FAIL");
+            failures.forEach(failure -> out.println("  " + failure));
+        }
+    }
+
+    public Path write(Path directory) throws IOException {
+        String stamp = LocalDateTime.now().format(TIMESTAMP);
+        Path histograms = Files.createDirectories(directory.resolve("loadtest-" + stamp));
+        for (Map.Entry<String, Histogram> entry : result.getLatencies().entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(histograms.resolve(entry.getKey() + ".hgrm")),
+                    false, StandardCharsets.UTF_8.name())) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        Path json = directory.resolve("loadtest-" + stamp + ".json");
+        try (Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+            out.write(String.format(Locale.ROOT,
+                    "{\"targetRate\":%d,\"durationSeconds\":%.0f,\"achievedRate\":%.1f,\"errors\":%d,\"dropped\":%d,\"passed\":%b,",
+                    result.getTargetRate(), seconds(), total() / seconds(), totalErrors(), result.getDropped(), passed()));
+            out.write("\"failures\":[");
+            for (int i = 0; i < failures.size(); i++) {
+                out.write((i == 0 ? "" : ",") + "\"" + failures.get(i).replace("\"", "'") + "\"");
+            }
+            out.write("],\"calls\":{");
+            boolean first = true;
+            for (Map.Entry<String, Histogram> entry : result.getLatencies().entrySet()) {
+                Histogram histogram = entry.getValue();
+                out.write(String.format(Locale.ROOT,
+                        "%s\"%s\":{\"count\":%d,\"errors\":%d,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"p999Ms\":%.3f,\"maxMs\":%.3f}",
+                        first ? "" : ",", entry.getKey(), histogram.getTotalCount(), errors(entry.getKey()),
+                        millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                        histogram.getMaxValue() / 1000.0));
+                first = false;
+            }
+            out.write("}}\n");
+        }
+        return json;
+    }
+
+    private void evaluate() {
+        result.getLatencies().forEach((name, histogram) -> {
+            Operation operation = operations.get(name);
+            check(name + " p99", millis(histogram, 99), operation.getP99Objective());
+            check(name + " p999", millis(histogram, 99.9), operation.getP999Objective());
+        });
+        long attempted = total() + result.getDropped();
+        double errorRate = attempted == 0 ? 0 : (double) totalErrors() / attempted;
+        if (errorRate > maxErrorRate) {
+            failures.add(String.format(Locale.ROOT, "error rate %.4f%% above %.4f%%", errorRate * 100, maxErrorRate * 100));
+        }
+        double achieved = total() / seconds();
+        if (achieved < result.getTargetRate() * minThroughputRatio) {
+            failures.add(String.format(Locale.ROOT, "throughput %.1f req/s below %.0f%% of the %d req/s target",
+                    achieved, minThroughputRatio * 100, result.getTargetRate()));
+        }
+    }
+
+    private void check(String name, double actualMillis, Duration objective) {
+        if (actualMillis > objective.toMillis()) {
+            failures.add(String.format(Locale.ROOT, "%s %.2f ms above %d ms", name, actualMillis, objective.toMillis()));
+        }
+    }
+
+    private long total() {
+        return result.getLatencies().values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    private long totalErrors() {
+        return result.getErrors().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private long errors(String name) {
+        return result.getErrors().getOrDefault(name, 0L);
+    }
+
+    private double seconds() {
+        return result.getDuration().toMillis() / 1000.0;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String optional(String value, String defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,98 @@
+package com.payu.assessment.bookcatalogue.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Command line options in --name=value form; anything not given keeps its default
+public class LoadTestOptions {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public LoadTestOptions(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+    }
+
+    // Catalogue size; the data directory is reused by later runs of the same size
+    public long books() {
+        return Long.parseLong(values.getOrDefault("books", "100000"));
+    }
+
+    // Requests started per second, independent of how fast responses come back
+    public int rate() {
+        return Integer.parseInt(values.getOrDefault("rate", "500"));
+    }
+
+    public Duration duration() {
+        return duration("duration", "60s");
+    }
+
+    public Duration warmup() {
+        return duration("warmup", "30s");
+    }
+
+    public int maxInFlight() {
+        return Integer.parseInt(values.getOrDefault("max-in-flight", "5000"));
+    }
+
+    public long seed() {
+        return Long.parseLong(values.getOrDefault("seed", "42"));
+    }
+
+    public Path dataDir() {
+        return Paths.get(values.getOrDefault("data-dir", "target/catalogue-" + books())).toAbsolutePath();
+    }
+
+    public Path reportDir() {
+        return Paths.get(values.getOrDefault("report-dir", "target")).toAbsolutePath();
+    }
+
+    public String profiles() {
+        return values.getOrDefault("profiles", "persistent");
+    }
+
+    // --mix.isbn=80 replaces the weight of one operation
+    public Double weight(String operation) {
+        String weight = values.get("mix." + operation);
+        return weight == null ? null : Double.valueOf(weight);
+    }
+
+    // --slo.isbn.p99=25ms, --slo.error-rate=0.001
+    public String slo(String name) {
+        return values.get("slo." + name);
+    }
+
+    private Duration duration(String name, String defaultValue) {
+        return parseDuration(values.getOrDefault(name, defaultValue));
+    }
+
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if (text.startsWith("p")) {
+            return Duration.parse(text.toUpperCase(Locale.ROOT));
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        switch (text.charAt(text.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            default:
+                throw new IllegalArgumentException("Unknown duration '" + value + "', use e.g. 250ms, 30s, 5m or PT1M");
+        }
+    }
+}
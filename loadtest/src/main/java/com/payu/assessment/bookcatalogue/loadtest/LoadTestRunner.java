@@ -0,0 +1,91 @@
+package com.payu.assessment.bookcatalogue.loadtest;
+
+import com.payu.assessment.bookcatalogue.BookCatalogueApiApplication;
+import com.payu.assessment.bookcatalogue.search.BookNameIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Seeds a local catalogue, boots the API on it and drives it at a fixed arrival rate. Everything
+// runs on this machine; the catalogue is kept on disk so the next run of the same size starts at once.
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        if (!Arrays.asList(options.profiles().split(",")).contains("persistent")) {
+            throw new IllegalArgumentException("--profiles must include persistent, the catalogue is seeded on disk");
+        }
+        Path dataDir = options.dataDir();
+
+        // Rows written behind the application's back are only picked up by a fresh start, so seed first
+        try (ConfigurableApplicationContext context = application(options)
+                .web(WebApplicationType.NONE)
+                .run(arguments(dataDir))) {
+            new CatalogueSeeder(context.getBean(DataSource.class), options.seed()).seed(options.books());
+        }
+
+        boolean passed;
+        try (ConfigurableApplicationContext context = application(options)
+                .run(arguments(dataDir, "--server.port=0", "--server.tomcat.max-connections=20000"))) {
+            awaitIndex(context.getBean(BookNameIndex.class), options.books());
+
+            URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            Scenario scenario = new Scenario(base, options.books(), options);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            System.out.printf("Driving %d req/s for %ds after %ds of warmup against %,d books%n", options.rate(),
+                    options.duration().getSeconds(), options.warmup().getSeconds(), options.books());
+            OpenLoadGenerator.Result result = new OpenLoadGenerator(client, scenario, options.rate(), options.maxInFlight())
+                    .run(options.warmup(), options.duration(), options.seed());
+
+            Map<String, Operation> operations = new LinkedHashMap<>();
+            scenario.getOperations().forEach(operation -> operations.put(operation.getName(), operation));
+            LatencyReport report = new LatencyReport(result, operations, options);
+            report.print(System.out);
+            System.out.println("Report written to " + report.write(options.reportDir()));
+            passed = report.passed();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static SpringApplicationBuilder application(LoadTestOptions options) {
+        return new SpringApplicationBuilder(BookCatalogueApiApplication.class).profiles(options.profiles().split(","));
+    }
+
+    private static String[] arguments(Path dataDir, String... extra) {
+        String[] common = {
+                "--catalogue.data-dir=" + dataDir,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                // One load generator is one client; the limiter would shed the load being measured
+                "--catalogue.rate-limit.enabled=false"
+        };
+        String[] all = Arrays.copyOf(common, common.length + extra.length);
+        System.arraycopy(extra, 0, all, common.length, extra.length);
+        return all;
+    }
+
+    // The first suggest calls would otherwise measure the index build rather than the API
+    private static void awaitIndex(BookNameIndex index, long books) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(30);
+        while (index.isBuilding() || index.size() < books) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Name index still building after 30 minutes");
+            }
+            Thread.sleep(100);
+        }
+    }
+}
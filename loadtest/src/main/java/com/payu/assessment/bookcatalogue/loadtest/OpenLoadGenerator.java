@@ -0,0 +1,143 @@
+package com.payu.assessment.bookcatalogue.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open workload model: requests start on a fixed schedule whether or not earlier ones have finished,
+// which is how real clients arrive. Latency runs from the scheduled start rather than the actual send,
+// so a stalled server is charged for the requests it delayed and coordinated omission cannot hide it.
+public class OpenLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final HttpClient client;
+    private final Scenario scenario;
+    private final int rate;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+
+    private final Map<String, Recorder> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long measureFrom;
+
+    public OpenLoadGenerator(HttpClient client, Scenario scenario, int rate, int maxInFlight) {
+        this.client = client;
+        this.scenario = scenario;
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public Result run(Duration warmup, Duration duration, long seed) throws InterruptedException {
+        Random random = new Random(seed);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        long scheduled = start;
+        while (scheduled < end) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(scenario.next(random), scheduled);
+            scheduled += intervalNanos;
+        }
+
+        // Requests still outstanding run into their own timeout, which is at most this long
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(35);
+        while (inFlight.availablePermits() < maxInFlight && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+
+        Map<String, Histogram> histograms = new TreeMap<>();
+        latencies.forEach((name, recorder) -> histograms.put(name, recorder.getIntervalHistogram()));
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((name, count) -> errorCounts.put(name, count.sum()));
+        return new Result(rate, duration, histograms, errorCounts, dropped.sum());
+    }
+
+    private void send(Operation.Call call, long scheduled) {
+        boolean measured = scheduled >= measureFrom;
+        // Past the cap the client itself would be the bottleneck; the request is lost, not queued
+        if (!inFlight.tryAcquire()) {
+            if (measured) {
+                dropped.increment();
+                errors.computeIfAbsent(call.getName(), name -> new LongAdder()).increment();
+            }
+            return;
+        }
+        HttpResponse.BodyHandler<String> body = call.readsBody()
+                ? HttpResponse.BodyHandlers.ofString()
+                : HttpResponse.BodyHandlers.replacing(null);
+        client.sendAsync(call.getRequest(), body)
+                .whenComplete((response, failure) -> {
+                    inFlight.release();
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                    boolean ok = failure == null && response.statusCode() < 400;
+                    if (ok) {
+                        call.succeeded(response.body());
+                    }
+                    if (!measured) {
+                        return;
+                    }
+                    latencies.computeIfAbsent(call.getName(), name -> new Recorder(HIGHEST_TRACKABLE_MICROS, 3))
+                            .recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    if (!ok) {
+                        errors.computeIfAbsent(call.getName(), name -> new LongAdder()).increment();
+                    }
+                });
+    }
+
+    public static class Result {
+        private final int targetRate;
+        private final Duration duration;
+        private final Map<String, Histogram> latencies;
+        private final Map<String, Long> errors;
+        private final long dropped;
+
+        public Result(int targetRate, Duration duration, Map<String, Histogram> latencies,
+                      Map<String, Long> errors, long dropped) {
+            this.targetRate = targetRate;
+            this.duration = duration;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.dropped = dropped;
+        }
+
+        public int getTargetRate() {
+            return targetRate;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        // Microseconds, per call name
+        public Map<String, Histogram> getLatencies() {
+            return latencies;
+        }
+
+        public Map<String, Long> getErrors() {
+            return errors;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.payu.assessment.bookcatalogue.loadtest;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// One kind of request in the mix, with its share of the arrival rate and its latency objectives
+public class Operation {
+
+    private final String name;
+    private final double weight;
+    private final Duration p99Objective;
+    private final Duration p999Objective;
+    private final Function<Random, Call> factory;
+
+    public Operation(String name, double weight, Duration p99Objective, Duration p999Objective,
+                     Function<Random, Call> factory) {
+        this.name = name;
+        this.weight = weight;
+        this.p99Objective = p99Objective;
+        this.p999Objective = p999Objective;
+        this.factory = factory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public Duration getP99Objective() {
+        return p99Objective;
+    }
+
+    public Duration getP999Objective() {
+        return p999Objective;
+    }
+
+    public Call next(Random random) {
+        return factory.apply(random);
+    }
+
+    Operation withWeight(double weight) {
+        return new Operation(name, weight, p99Objective, p999Objective, factory);
+    }
+
+    Operation withObjectives(Duration p99, Duration p999) {
+        return new Operation(name, weight, p99, p999, factory);
+    }
+
+    // A concrete request; name may differ from the operation's when it had to fall back to another call.
+    // Only a call with a body callback has its response body read; the rest are discarded unread.
+    public static class Call {
+        private final String name;
+        private final HttpRequest request;
+        private final Runnable onSuccess;
+        private final Consumer<String> onBody;
+
+        public Call(String name, HttpRequest request) {
+            this(name, request, null, null);
+        }
+
+        public Call(String name, HttpRequest request, Runnable onSuccess) {
+            this(name, request, onSuccess, null);
+        }
+
+        public Call(String name, HttpRequest request, Consumer<String> onBody) {
+            this(name, request, null, onBody);
+        }
+
+        private Call(String name, HttpRequest request, Runnable onSuccess, Consumer<String> onBody) {
+            this.name = name;
+            this.request = request;
+            this.onSuccess = onSuccess;
+            this.onBody = onBody;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HttpRequest getRequest() {
+            return request;
+        }
+
+        public boolean readsBody() {
+            return onBody != null;
+        }
+
+        public void succeeded(String body) {
+            if (onSuccess != null) {
+                onSuccess.run();
+            }
+            if (onBody != null) {
+                onBody.accept(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.payu.assessment.bookcatalogue.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.util.CursorCodec;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Covers every BookController endpoint. The default mix is 90% point reads, 5% lists and searches,
+// and 5% writes. Writes add and remove their own books, so the seeded catalogue keeps its size.
+// Page cursors come from pages the run has already read, so they stay valid as books are deleted.
+public class Scenario {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    static final String NEW_ISBN_PREFIX = "LT-NEW-";
+
+    private static final int BATCH = 10;
+    private static final int OBSERVED_CURSORS = 1024;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI base;
+    private final long books;
+    private final List<Operation> operations;
+    private final double totalWeight;
+
+    private final AtomicLong created = new AtomicLong();
+    private final Queue<String> deletable = new ConcurrentLinkedQueue<>();
+    // Tracking id and ISBN of each accepted ingest, until a status read finds it written
+    private final Queue<String[]> ingesting = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<String> cursors = new AtomicReferenceArray<>(OBSERVED_CURSORS);
+    private final AtomicLong cursorsSeen = new AtomicLong();
+
+    public Scenario(URI base, long books, LoadTestOptions options) {
+        this.base = base;
+        this.books = books;
+
+        List<Operation> defaults = new ArrayList<>();
+        // point reads: 90
+        defaults.add(operation("isbn", 87.75, 25, 100, this::isbn));
+        defaults.add(operation("isbn-batch", 1, 100, 250, random -> get("isbn-batch", "/api/books/isbn?ids=" + seededIsbns(random))));
+        defaults.add(operation("suggest", 1, 25, 100, random -> get("suggest", "/api/books/suggest?q=" + encode(suggestQuery(random)))));
+        defaults.add(operation("ingest-status", 0.25, 25, 100, this::ingestStatus));
+        // lists and searches: 5
+        defaults.add(operation("list", 2, 100, 500, this::list));
+        defaults.add(operation("search", 1.75, 250, 1000, random -> get("search", searchQuery(random))));
+        defaults.add(operation("export", 0.25, 250, 1000, this::export));
+        defaults.add(operation("changes", 0.5, 100, 500, random -> get("changes", "/api/books/changes?since=0&limit=100")));
+        defaults.add(operation("cache-stats", 0.25, 25, 100, random -> get("cache-stats", "/api/books/cache/stats")));
+        defaults.add(operation("stats", 0.25, 25, 100, random -> get("stats", "/api/books/stats")));
+        // the whole catalogue per call; opt in with --mix.stream=<weight>
+        defaults.add(operation("stream", 0, 60_000, 60_000, random -> get("stream", "/api/books/stream")));
+        // writes: 5
+        defaults.add(operation("create", 1.75, 100, 500, this::create));
+        defaults.add(operation("ingest", 0.25, 25, 100, this::ingest));
+        defaults.add(operation("update", 2, 100, 500, this::update));
+        defaults.add(operation("delete", 0.25, 100, 500, this::delete));
+        defaults.add(operation("bulk-import", 0.25, 500, 2000, this::bulkImport));
+        defaults.add(operation("bulk-update", 0.25, 500, 2000, this::bulkUpdate));
+        defaults.add(operation("bulk-delete", 0.25, 500, 2000, this::bulkDelete));
+
+        List<Operation> configured = new ArrayList<>();
+        double total = 0;
+        for (Operation operation : defaults) {
+            Double weight = options.weight(operation.getName());
+            if (weight != null) {
+                operation = operation.withWeight(weight);
+            }
+            String p99 = options.slo(operation.getName() + ".p99");
+            String p999 = options.slo(operation.getName() + ".p999");
+            operation = operation.withObjectives(
+                    p99 == null ? operation.getP99Objective() : LoadTestOptions.parseDuration(p99),
+                    p999 == null ? operation.getP999Objective() : LoadTestOptions.parseDuration(p999));
+            configured.add(operation);
+            total += operation.getWeight();
+        }
+        this.operations = Collections.unmodifiableList(configured);
+        this.totalWeight = total;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public Operation.Call next(Random random) {
+        double pick = random.nextDouble() * totalWeight;
+        for (Operation operation : operations) {
+            pick -= operation.getWeight();
+            if (pick < 0) {
+                return operation.next(random);
+            }
+        }
+        return operations.get(0).next(random);
+    }
+
+    private Operation.Call isbn(Random random) {
+        return get("isbn", "/api/books/isbn/" + seededIsbn(random));
+    }
+
+    // Starts from the first page or from a cursor an earlier page returned
+    private Operation.Call list(Random random) {
+        String cursor = observedCursor(random);
+        String path = "/api/books?size=100" + (cursor == null ? "" : "&cursor=" + cursor);
+        return new Operation.Call("list", request(path).GET().build(), body -> {
+            String next = field(body, "nextCursor");
+            if (next != null) {
+                cursors.set((int) (cursorsSeen.getAndIncrement() % OBSERVED_CURSORS), next);
+            }
+        });
+    }
+
+    private Operation.Call export(Random random) {
+        String cursor = observedCursor(random);
+        long afterId = cursor == null ? 0 : CursorCodec.decode(cursor);
+        return get("export", "/api/books/export?format=ndjson&limit=100&afterId=" + afterId);
+    }
+
+    private String observedCursor(Random random) {
+        long seen = Math.min(cursorsSeen.get(), OBSERVED_CURSORS);
+        // Now and then a walk restarts from the first page, so the pool keeps covering the whole catalogue
+        if (seen == 0 || random.nextInt(10) == 0) {
+            return null;
+        }
+        return cursors.get(random.nextInt((int) seen));
+    }
+
+    private Operation.Call create(Random random) {
+        String isbn = newIsbn();
+        return new Operation.Call("create", json("POST", "/api/books", bookJson(random, isbn)), () -> deletable.add(isbn));
+    }
+
+    private Operation.Call update(Random random) {
+        String isbn = seededIsbn(random);
+        return new Operation.Call("update", json("PUT", "/api/books/isbn/" + isbn, bookJson(random, isbn)));
+    }
+
+    // Only books this run created are deleted; until one exists the slot is spent on a create
+    private Operation.Call delete(Random random) {
+        String isbn = deletable.poll();
+        if (isbn == null) {
+            return create(random);
+        }
+        return new Operation.Call("delete", request("/api/books/isbn/" + isbn).DELETE().build());
+    }
+
+    private Operation.Call ingest(Random random) {
+        String isbn = newIsbn();
+        return new Operation.Call("ingest", json("POST", "/api/books/ingest", bookJson(random, isbn)), body -> {
+            String trackingId = field(body, "trackingId");
+            if (trackingId != null) {
+                ingesting.add(new String[]{trackingId, isbn});
+            }
+        });
+    }
+
+    // A written ingest joins the deletable books; one still queued is asked about again later.
+    // Until an ingest is pending the slot is spent on an ISBN read.
+    private Operation.Call ingestStatus(Random random) {
+        String[] ingest = ingesting.poll();
+        if (ingest == null) {
+            return isbn(random);
+        }
+        return new Operation.Call("ingest-status", request("/api/books/ingest/" + ingest[0]).GET().build(), body -> {
+            String status = field(body, "status");
+            if ("WRITTEN".equals(status)) {
+                deletable.add(ingest[1]);
+            } else if ("QUEUED".equals(status)) {
+                ingesting.add(ingest);
+            }
+        });
+    }
+
+    private Operation.Call bulkImport(Random random) {
+        List<String> isbns = new ArrayList<>(BATCH);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < BATCH; i++) {
+            String isbn = newIsbn();
+            isbns.add(isbn);
+            body.append(bookJson(random, isbn)).append('\n');
+        }
+        HttpRequest request = request("/api/books/bulk")
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return new Operation.Call("bulk-import", request, () -> deletable.addAll(isbns));
+    }
+
+    private Operation.Call bulkUpdate(Random random) {
+        StringBuilder isbns = new StringBuilder();
+        for (int i = 0; i < BATCH; i++) {
+            isbns.append(i == 0 ? "" : ",").append('"').append(seededIsbn(random)).append('"');
+        }
+        String body = "{\"isbns\":[" + isbns + "],\"price\":" + price(random) + "}";
+        return new Operation.Call("bulk-update", json("PATCH", "/api/books/bulk", body));
+    }
+
+    // Deletes books this run created, like delete; until there are any the slot is spent on a create
+    private Operation.Call bulkDelete(Random random) {
+        List<String> isbns = new ArrayList<>(BATCH);
+        for (String isbn; isbns.size() < BATCH && (isbn = deletable.poll()) != null; ) {
+            isbns.add(isbn);
+        }
+        if (isbns.isEmpty()) {
+            return create(random);
+        }
+        StringBuilder body = new StringBuilder();
+        for (String isbn : isbns) {
+            body.append(body.length() == 0 ? "" : ",").append('"').append(isbn).append('"');
+        }
+        return new Operation.Call("bulk-delete", json("DELETE", "/api/books/bulk", "{\"isbns\":[" + body + "]}"));
+    }
+
+    private String newIsbn() {
+        return NEW_ISBN_PREFIX + created.incrementAndGet();
+    }
+
+    private String seededIsbn(Random random) {
+        return CatalogueSeeder.isbn(randomIndex(random));
+    }
+
+    private String seededIsbns(Random random) {
+        StringBuilder isbns = new StringBuilder();
+        for (int i = 0; i < 2 * BATCH; i++) {
+            isbns.append(i == 0 ? "" : ",").append(seededIsbn(random));
+        }
+        return isbns.toString();
+    }
+
+    private long randomIndex(Random random) {
+        return 1 + (long) (random.nextDouble() * books);
+    }
+
+    private static String suggestQuery(Random random) {
+        String adjective = CatalogueSeeder.ADJECTIVES[random.nextInt(CatalogueSeeder.ADJECTIVES.length)];
+        String noun = CatalogueSeeder.NOUNS[random.nextInt(CatalogueSeeder.NOUNS.length)];
+        return (adjective + " " + noun.substring(0, 3)).toLowerCase(Locale.ROOT);
+    }
+
+    private static String searchQuery(Random random) {
+        BookType type = BookType.values()[random.nextInt(BookType.values().length)];
+        double minPrice = random.nextInt(19000) / 100.0;
+        return "/api/books/search?bookType=" + type + "&minPrice=" + minPrice + "&maxPrice=" + (minPrice + 2)
+                + "&sort=price&size=20";
+    }
+
+    private static String bookJson(Random random, String isbn) {
+        int day = 1 + random.nextInt(28);
+        int month = 1 + random.nextInt(12);
+        return String.format(Locale.ROOT,
+                "{\"name\":\"Load Test %s\",\"isbn\":\"%s\",\"publishDate\":\"%02d/%02d/%d\",\"price\":%s,\"bookType\":\"%s\"}",
+                isbn, isbn, day, month, 1950 + random.nextInt(75), price(random),
+                BookType.values()[random.nextInt(BookType.values().length)]);
+    }
+
+    private static String price(Random random) {
+        return String.valueOf(random.nextInt(20000) / 100.0);
+    }
+
+    private static String field(String json, String name) {
+        try {
+            JsonNode value = MAPPER.readTree(json).get(name);
+            return value == null || value.isNull() ? null : value.asText();
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static Operation operation(String name, double weight, long p99Millis, long p999Millis,
+                                       java.util.function.Function<Random, Operation.Call> factory) {
+        return new Operation(name, weight, Duration.ofMillis(p99Millis), Duration.ofMillis(p999Millis), factory);
+    }
+
+    private Operation.Call get(String name, String path) {
+        return new Operation.Call(name, request(path).GET().build());
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+}
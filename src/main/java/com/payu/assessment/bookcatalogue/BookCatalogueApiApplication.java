@@ -2,8 +2,10 @@ package com.payu.assessment.bookcatalogue;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BookCatalogueApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(BookCatalogueApiApplication.class, args);
@@ -0,0 +1,137 @@
+package com.payu.assessment.bookcatalogue.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// Serialized JSON of hot books, so a cached lookup is written without running Jackson again.
+// Entries are keyed by ISBN and checked against id and version, so a stale body is never served.
+@Component
+public class BookResponseBytesCache implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, SerializedBook> cache;
+
+    @Autowired
+    public BookResponseBytesCache(ObjectMapper objectMapper,
+                                  @Value("${catalogue.cache.isbn-bytes.max-size:1000}") long maxSize) {
+        this.objectMapper = objectMapper;
+        // Caffeine's frequency-based admission keeps the most requested titles
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public SerializedBook get(BookResponse book) {
+        if (book.getId() == null || book.getVersion() == null) {
+            return new SerializedBook(book.getId(), book.getVersion(), serialize(book));
+        }
+        SerializedBook cached = cache.getIfPresent(book.getIsbn());
+        if (cached != null && cached.isFor(book.getId(), book.getVersion())) {
+            return cached;
+        }
+        SerializedBook serialized = new SerializedBook(book.getId(), book.getVersion(), serialize(book));
+        cache.asMap().merge(book.getIsbn(), serialized, BookResponseBytesCache::newer);
+        return serialized;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        // Update and delete make the old bytes unreachable; dropping them frees the slot right away
+        if (event.getPrevious() != null) {
+            cache.invalidate(event.getPrevious().getIsbn());
+        }
+    }
+
+    // Entries are checked against id and version anyway; dropping them only frees the slots sooner
+    @EventListener
+    public void onResync(BookResyncEvent event) {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books.isbn.bytes");
+    }
+
+    private byte[] serialize(BookResponse book) {
+        try {
+            return objectMapper.writeValueAsBytes(book);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize book " + book.getIsbn(), e);
+        }
+    }
+
+    private static SerializedBook newer(SerializedBook current, SerializedBook candidate) {
+        if (current.id.equals(candidate.id) && current.version > candidate.version) {
+            return current;
+        }
+        return candidate;
+    }
+
+    public static final class SerializedBook {
+
+        private static final byte[] NOT_SMALLER = new byte[0];
+
+        private final Long id;
+        private final Long version;
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        private SerializedBook(Long id, Long version, byte[] json) {
+            this.id = id;
+            this.version = version;
+            this.json = json;
+        }
+
+        private boolean isFor(Long id, Long version) {
+            return this.id.equals(id) && this.version.equals(version);
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        // Compressed once on first request; null when gzip would not make the body smaller
+        public byte[] getGzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return compressed == NOT_SMALLER ? null : compressed;
+        }
+
+        private static byte[] compress(byte[] json) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.size() < json.length ? out.toByteArray() : NOT_SMALLER;
+        }
+    }
+}
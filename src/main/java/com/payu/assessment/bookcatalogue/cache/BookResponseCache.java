@@ -0,0 +1,155 @@
+package com.payu.assessment.bookcatalogue.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.CacheStatsResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class BookResponseCache implements MeterBinder {
+
+    private final Cache<String, BookResponse> cache;
+    // ISBNs recently looked up and not found, so repeated probes for them skip the database
+    private final Cache<String, Boolean> missing;
+    private final AtomicLong changes = new AtomicLong();
+
+    public BookResponseCache(@Value("${catalogue.cache.isbn.max-size:10000}") long maxSize,
+                             @Value("${catalogue.cache.isbn.ttl:10m}") Duration ttl,
+                             @Value("${catalogue.cache.isbn.missing.max-size:100000}") long missingMaxSize,
+                             @Value("${catalogue.cache.isbn.missing.ttl:5s}") Duration missingTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(missingMaxSize)
+                .expireAfterWrite(missingTtl)
+                .recordStats()
+                .build();
+    }
+
+    public BookResponse get(String isbn) {
+        return cache.getIfPresent(isbn);
+    }
+
+    // Read before a lookup and passed back with its result: if any book changed in between, the
+    // result may predate the change and is returned to the caller without being cached
+    public long stamp() {
+        return changes.get();
+    }
+
+    public void put(BookResponse response, long stamp) {
+        if (changes.get() != stamp) {
+            return;
+        }
+        put(response);
+        if (changes.get() != stamp) {
+            cache.invalidate(response.getIsbn());
+        }
+    }
+
+    public void put(BookResponse response) {
+        missing.invalidate(response.getIsbn());
+        // A slow reader must not overwrite a newer version written by a concurrent update
+        cache.asMap().merge(response.getIsbn(), response, BookResponseCache::newer);
+    }
+
+    private static BookResponse newer(BookResponse current, BookResponse candidate) {
+        if (current.getVersion() != null && candidate.getVersion() != null
+                && current.getId() != null && current.getId().equals(candidate.getId())
+                && current.getVersion() > candidate.getVersion()) {
+            return current;
+        }
+        return candidate;
+    }
+
+    public void evict(String isbn) {
+        cache.invalidate(isbn);
+
+        // A reader may reload the old row before the deleting transaction commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(isbn);
+                }
+            });
+        }
+    }
+
+    public boolean isMissing(String isbn) {
+        return missing.getIfPresent(isbn) != null;
+    }
+
+    public void putMissing(String isbn, long stamp) {
+        if (changes.get() != stamp) {
+            return;
+        }
+        missing.put(isbn, Boolean.TRUE);
+        if (changes.get() != stamp) {
+            missing.invalidate(isbn);
+        }
+    }
+
+    // Creates, upserts, imports and ISBN changes all arrive here, however the book was written
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        changes.incrementAndGet();
+        if (event.getCurrent() != null) {
+            missing.invalidate(event.getCurrent().getIsbn());
+        }
+        // Local writes refresh their own entries; changes made on another node only reach us here
+        if (event.isReplicated()) {
+            if (event.getPrevious() != null) {
+                cache.invalidate(event.getPrevious().getIsbn());
+            }
+            if (event.getCurrent() != null) {
+                cache.invalidate(event.getCurrent().getIsbn());
+            }
+        }
+    }
+
+    @EventListener
+    public void onResync(BookResyncEvent event) {
+        clear();
+    }
+
+    public void clear() {
+        changes.incrementAndGet();
+        cache.invalidateAll();
+        missing.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books.isbn");
+        CaffeineCacheMetrics.monitor(registry, missing, "books.isbn.missing");
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package com.payu.assessment.bookcatalogue.cache;
+
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import com.payu.assessment.bookcatalogue.model.Book;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.EntityManagerFactory;
+
+// Hibernate's second-level cache only sees this node's writes. A change replicated from another node evicts
+// the row it touched, and the cached query results, which cannot be traced back to rows. Without the l2cache
+// profile every call here is a no-op.
+@Component
+@ConditionalOnProperty(name = "catalogue.cluster.enabled", havingValue = "true")
+public class SecondLevelCacheEvictor {
+
+    private final Cache cache;
+
+    @Autowired
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!event.isReplicated()) {
+            return;
+        }
+        Long id = event.getCurrent() == null ? event.getPrevious().getId() : event.getCurrent().getId();
+        cache.evictEntityData(Book.class, id);
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            // The ISBN may be reused by a new book, so its id mapping must not outlive the delete
+            cache.evictNaturalIdData(Book.class);
+        }
+        cache.evictDefaultQueryRegion();
+    }
+
+    @EventListener
+    public void onResync(BookResyncEvent event) {
+        cache.evictAllRegions();
+    }
+}
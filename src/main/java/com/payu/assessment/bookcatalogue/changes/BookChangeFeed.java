@@ -0,0 +1,188 @@
+package com.payu.assessment.bookcatalogue.changes;
+
+import com.payu.assessment.bookcatalogue.dto.BookChangePage;
+import com.payu.assessment.bookcatalogue.dto.BookChangeResponse;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.exception.ChangesExpiredException;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.model.BookChange;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookChangeRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Component
+public class BookChangeFeed {
+
+    static final int MAX_LIMIT = 1000;
+    static final long MAX_WAIT_MILLIS = 30_000;
+    static final int MAX_WAITERS = 1000;
+
+    private final BookChangeRepository bookChangeRepository;
+    private final ChangeSequenceRepository changeSequenceRepository;
+    private final Duration retention;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    // Waking waiters queries the log, which must not run on the committing writer's thread
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-change-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public BookChangeFeed(BookChangeRepository bookChangeRepository,
+                          ChangeSequenceRepository changeSequenceRepository,
+                          @Value("${catalogue.changes.retention:7d}") Duration retention) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        this.retention = retention;
+    }
+
+    public BookChangePage read(long since, int limit) {
+        if (since < 0) {
+            throw new InvalidRequestException("since must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<BookChange> changes = fetch(since, limit);
+        if (changes.isEmpty()) {
+            // Read the head first: every sequence number up to it was committed, so if none after
+            // since can be found on a second look, they have been pruned
+            long head = headSeq();
+            if (since < head) {
+                changes = fetch(since, limit);
+                if (changes.isEmpty()) {
+                    throw expired(since);
+                }
+            }
+        }
+        // Sequence numbers have no holes, so starting anywhere but since + 1 means older entries were pruned
+        if (!changes.isEmpty() && changes.get(0).getSeq() != since + 1) {
+            throw expired(since);
+        }
+
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new BookChangePage(changes.stream().map(BookChangeFeed::toResponse).collect(Collectors.toList()),
+                nextSince, hasMore);
+    }
+
+    public DeferredResult<BookChangePage> poll(long since, int limit, long waitMillis) {
+        if (waitMillis < 0 || waitMillis > MAX_WAIT_MILLIS) {
+            throw new InvalidRequestException("waitMillis must be between 0 and " + MAX_WAIT_MILLIS);
+        }
+        BookChangePage page = read(since, limit);
+        if (!page.getChanges().isEmpty() || waitMillis == 0 || waiters.size() >= MAX_WAITERS) {
+            DeferredResult<BookChangePage> result = new DeferredResult<>();
+            result.setResult(page);
+            return result;
+        }
+
+        DeferredResult<BookChangePage> result = new DeferredResult<>(waitMillis, page);
+        Waiter waiter = new Waiter(since, limit, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // An append may have committed between the read above and registering
+        notifier.execute(() -> wake(waiter));
+        return result;
+    }
+
+    void onAppended(long lastSeq) {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        notifier.execute(() -> {
+            for (Waiter waiter : waiters) {
+                if (waiter.since < lastSeq) {
+                    wake(waiter);
+                }
+            }
+        });
+    }
+
+    @Transactional
+    @Scheduled(initialDelayString = "${catalogue.changes.prune-interval:PT1H}",
+            fixedDelayString = "${catalogue.changes.prune-interval:PT1H}")
+    public int prune() {
+        return bookChangeRepository.deleteByChangedAtBefore(Instant.now().minus(retention));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        notifier.shutdownNow();
+    }
+
+    private void wake(Waiter waiter) {
+        if (waiter.result.isSetOrExpired()) {
+            return;
+        }
+        try {
+            BookChangePage page = read(waiter.since, waiter.limit);
+            if (!page.getChanges().isEmpty()) {
+                waiter.result.setResult(page);
+            }
+        } catch (RuntimeException e) {
+            waiter.result.setErrorResult(e);
+        }
+    }
+
+    private List<BookChange> fetch(long since, int limit) {
+        return bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.of(0, limit + 1));
+    }
+
+    private ChangesExpiredException expired(long since) {
+        return new ChangesExpiredException("Changes after " + since + " are no longer retained; re-sync from "
+                + "/api/books and resume from since=" + headSeq());
+    }
+
+    private long headSeq() {
+        return changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES)
+                .map(ChangeSequence::getLastSeq)
+                .orElse(0L);
+    }
+
+    private static BookChangeResponse toResponse(BookChange change) {
+        BookResponse book = null;
+        if (change.getType() != BookChangedEvent.Type.DELETED) {
+            book = new BookResponse(change.getName(), change.getIsbn(), change.getPublishDate(),
+                    change.getPrice(), change.getBookType());
+        }
+        return new BookChangeResponse(change.getSeq(), change.getType(), change.getIsbn(), change.getVersion(),
+                change.getChangedAt(), book);
+    }
+
+    private static final class Waiter {
+        private final long since;
+        private final int limit;
+        private final DeferredResult<BookChangePage> result;
+
+        private Waiter(long since, int limit, DeferredResult<BookChangePage> result) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.payu.assessment.bookcatalogue.changes;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.model.BookChange;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookChangeRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class BookChangeLog {
+
+    private final BookChangeRepository bookChangeRepository;
+    private final ChangeSequenceRepository changeSequenceRepository;
+    private final BookChangeFeed bookChangeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+
+    @Autowired
+    public BookChangeLog(BookChangeRepository bookChangeRepository,
+                         ChangeSequenceRepository changeSequenceRepository,
+                         BookChangeFeed bookChangeFeed,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${catalogue.cluster.node-id:}") String nodeId) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        this.bookChangeFeed = bookChangeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId == null || nodeId.trim().isEmpty() ? UUID.randomUUID().toString() : nodeId.trim();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PostConstruct
+    void ensureSequence() {
+        if (changeSequenceRepository.existsById(ChangeSequence.BOOK_CHANGES)) {
+            return;
+        }
+        try {
+            changeSequenceRepository.saveAndFlush(new ChangeSequence(ChangeSequence.BOOK_CHANGES, 0));
+        } catch (DataIntegrityViolationException e) {
+            // Another node sharing the database created it first
+        }
+    }
+
+    // Synchronous, so the entry commits or rolls back together with the change it describes
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        // Already in the log under the sequence number its own node gave it
+        if (event.isReplicated()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> onBookChanged(event));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<BookChangedEvent> pending = (List<BookChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new AppendOnCommit(pending));
+        }
+        pending.add(event);
+    }
+
+    // Numbers are taken under the sequence row lock as the last step before commit, so entries
+    // become visible in sequence order and a reader never skips one that commits later.
+    // The lock is held until the commit completes, so write transactions commit one at a time across
+    // every node sharing the database; that lock-hold time bounds write throughput (see the README).
+    private long append(List<BookChangedEvent> events) {
+        ChangeSequence sequence = changeSequenceRepository.findForUpdate(ChangeSequence.BOOK_CHANGES)
+                .orElseThrow(() -> new IllegalStateException("Change sequence row is missing"));
+        long seq = sequence.getLastSeq();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        List<BookChange> changes = new ArrayList<>(events.size());
+        for (BookChangedEvent event : events) {
+            BookChange change = toChange(++seq, event, now);
+            change.setOrigin(nodeId);
+            event.setSeq(seq);
+            changes.add(change);
+        }
+        sequence.setLastSeq(seq);
+        bookChangeRepository.saveAll(changes);
+        return seq;
+    }
+
+    private static BookChange toChange(long seq, BookChangedEvent event, Instant changedAt) {
+        BookResponse book = event.getType() == BookChangedEvent.Type.DELETED ? event.getPrevious() : event.getCurrent();
+        BookChange change = new BookChange(seq, event.getType(), book.getId(), book.getIsbn(), changedAt);
+        change.setVersion(book.getVersion());
+        if (event.getType() != BookChangedEvent.Type.DELETED) {
+            change.setName(book.getName());
+            change.setPublishDate(book.getPublishDate());
+            change.setPrice(book.getPrice());
+            change.setBookType(book.getBookType());
+        }
+        return change;
+    }
+
+    private class AppendOnCommit implements TransactionSynchronization {
+
+        private final List<BookChangedEvent> events;
+        private long lastSeq;
+
+        private AppendOnCommit(List<BookChangedEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lastSeq = append(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookChangeLog.this);
+            if (status == STATUS_COMMITTED) {
+                bookChangeFeed.onAppended(lastSeq);
+            }
+        }
+    }
+}
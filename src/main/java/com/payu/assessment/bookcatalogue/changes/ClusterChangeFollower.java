@@ -0,0 +1,83 @@
+package com.payu.assessment.bookcatalogue.changes;
+
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import com.payu.assessment.bookcatalogue.model.BookChange;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookChangeRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+// Keeps this node's caches, name index and change-feed waiters in step with writes made by the other
+// nodes sharing the database. The change log is the invalidation channel: every committed write is in
+// it, in commit order, so no broker is needed and a node that stalls catches up instead of losing messages.
+@Component
+@ConditionalOnProperty(name = "catalogue.cluster.enabled", havingValue = "true")
+public class ClusterChangeFollower {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final BookChangeRepository bookChangeRepository;
+    private final ChangeSequenceRepository changeSequenceRepository;
+    private final BookChangeFeed bookChangeFeed;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+
+    private volatile long lastSeq;
+
+    @Autowired
+    public ClusterChangeFollower(BookChangeRepository bookChangeRepository,
+                                 ChangeSequenceRepository changeSequenceRepository,
+                                 BookChangeFeed bookChangeFeed,
+                                 BookChangeLog bookChangeLog,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        this.bookChangeFeed = bookChangeFeed;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = bookChangeLog.getNodeId();
+    }
+
+    // Caches start empty and the name index is built from the table, so only later changes matter
+    @PostConstruct
+    void start() {
+        lastSeq = changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES)
+                .map(ChangeSequence::getLastSeq)
+                .orElse(0L);
+    }
+
+    @Scheduled(fixedDelayString = "${catalogue.cluster.poll-interval:PT0.25S}")
+    public void follow() {
+        List<BookChange> changes;
+        do {
+            changes = bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(lastSeq, PageRequest.of(0, BATCH_SIZE));
+            if (changes.isEmpty()) {
+                return;
+            }
+            // Sequence numbers have no holes, so a jump means entries were pruned before we read them.
+            // What they changed is unknown, so every derived view resyncs from the table.
+            if (changes.get(0).getSeq() != lastSeq + 1) {
+                eventPublisher.publishEvent(new BookResyncEvent(lastSeq + 1, changes.get(0).getSeq()));
+            }
+            for (BookChange change : changes) {
+                if (!nodeId.equals(change.getOrigin())) {
+                    eventPublisher.publishEvent(BookChangedEvent.replicated(change));
+                }
+            }
+            lastSeq = changes.get(changes.size() - 1).getSeq();
+            bookChangeFeed.onAppended(lastSeq);
+        } while (changes.size() == BATCH_SIZE);
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+}
@@ -1,66 +1,313 @@
 package com.payu.assessment.bookcatalogue.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payu.assessment.bookcatalogue.cache.BookResponseBytesCache;
+import com.payu.assessment.bookcatalogue.changes.BookChangeFeed;
+import com.payu.assessment.bookcatalogue.dto.BookBatchResponse;
+import com.payu.assessment.bookcatalogue.dto.BookChangePage;
+import com.payu.assessment.bookcatalogue.dto.BookIngestResponse;
+import com.payu.assessment.bookcatalogue.dto.BookPageResponse;
 import com.payu.assessment.bookcatalogue.dto.BookRequest;
 import com.payu.assessment.bookcatalogue.dto.BookResponse;
-import com.payu.assessment.bookcatalogue.exception.BookNotFoundException;
+import com.payu.assessment.bookcatalogue.dto.BookSearchCriteria;
+import com.payu.assessment.bookcatalogue.dto.BookSearchResponse;
+import com.payu.assessment.bookcatalogue.dto.BookStatsResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSuggestion;
+import com.payu.assessment.bookcatalogue.dto.BulkDeleteRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkImportResponse;
+import com.payu.assessment.bookcatalogue.dto.BulkUpdateRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkWriteResponse;
+import com.payu.assessment.bookcatalogue.dto.CacheStatsResponse;
+import com.payu.assessment.bookcatalogue.dto.ExportFormat;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
 import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.search.BookNameIndex;
+import com.payu.assessment.bookcatalogue.service.BookExportService;
+import com.payu.assessment.bookcatalogue.service.BookImportService;
+import com.payu.assessment.bookcatalogue.service.BookIngestService;
 import com.payu.assessment.bookcatalogue.service.BookService;
+import com.payu.assessment.bookcatalogue.stats.BookStatistics;
 import com.payu.assessment.bookcatalogue.util.BookMapper;
+import com.payu.assessment.bookcatalogue.util.CursorCodec;
+import com.payu.assessment.bookcatalogue.util.ETags;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final BookIngestService bookIngestService;
+    private final BookNameIndex bookNameIndex;
+    private final BookChangeFeed bookChangeFeed;
+    private final BookStatistics bookStatistics;
+    private final BookResponseBytesCache bookResponseBytesCache;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService,
+                          BookExportService bookExportService, BookIngestService bookIngestService,
+                          BookNameIndex bookNameIndex, BookChangeFeed bookChangeFeed, BookStatistics bookStatistics,
+                          BookResponseBytesCache bookResponseBytesCache, ObjectMapper objectMapper) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
+        this.bookIngestService = bookIngestService;
+        this.bookNameIndex = bookNameIndex;
+        this.bookChangeFeed = bookChangeFeed;
+        this.bookStatistics = bookStatistics;
+        this.bookResponseBytesCache = bookResponseBytesCache;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public List<BookResponse> getAllBooks() {
-        return bookService.getAllBooks()
+    public BookPageResponse getBooks(@RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "100") int size,
+                                     WebRequest webRequest) {
+        Slice<Book> page = bookService.getBooksPage(cursor, size);
+        List<BookResponse> items = page.getContent()
                 .stream()
                 .map(BookMapper::toResponse)
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (page.hasNext()) {
+            nextCursor = CursorCodec.encode(page.getContent().get(page.getNumberOfElements() - 1).getId());
+        }
+
+        String etag = ETags.of(items, nextCursor);
+        if (etag != null && webRequest.checkNotModified(etag, ETags.lastModified(items))) {
+            return null;
+        }
+        return new BookPageResponse(items, nextCursor);
+    }
+
+    @GetMapping("/search")
+    public BookSearchResponse searchBooks(BookSearchCriteria criteria,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(required = false) String sort) {
+        Slice<Book> result = bookService.searchBooks(criteria, page, size, sort);
+        List<BookResponse> items = result.getContent()
+                .stream()
+                .map(BookMapper::toResponse)
+                .collect(Collectors.toList());
+        return new BookSearchResponse(items, page, size, result.hasNext());
+    }
+
+    @GetMapping("/suggest")
+    public List<BookSuggestion> suggestBooks(@RequestParam("q") String query,
+                                             @RequestParam(defaultValue = "10") int limit) {
+        return bookNameIndex.suggest(query, limit);
+    }
+
+    @GetMapping("/stats")
+    public BookStatsResponse getStats() {
+        return bookStatistics.getStats();
+    }
+
+    @GetMapping("/changes")
+    public DeferredResult<BookChangePage> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "100") int limit,
+                                                     @RequestParam(defaultValue = "0") long waitMillis) {
+        return bookChangeFeed.poll(since, limit, waitMillis);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                bookService.streamAllBooks(book -> {
+                    try {
+                        generator.writeObject(BookMapper.toResponse(book));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(defaultValue = "0") long afterId,
+                                                             @RequestParam(required = false) Long limit,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        long rows = limit == null ? Long.MAX_VALUE : limit;
+        if (rows < 1) {
+            throw new InvalidRequestException("limit must be positive");
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                bookExportService.exportBooks(out, exportFormat, afterId, rows);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            bookExportService.exportBooks(compressed, exportFormat, afterId, rows);
+            compressed.finish();
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("books." + exportFormat.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
     }
 
     @GetMapping("/isbn/{isbn}")
-    public ResponseEntity<BookResponse> getBookByIsbn(@PathVariable String isbn) {
-        Book book = bookService.getBookByIsbn(isbn);
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = BookResponse.class)))
+    public ResponseEntity<byte[]> getBookByIsbn(@PathVariable String isbn,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                WebRequest webRequest) {
+        BookResponse book = bookService.getBookResponseByIsbn(isbn);
         if (book == null) return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(BookMapper.toResponse(book));
+
+        String etag = ETags.of(book);
+        long lastModified = book.getUpdatedAt() == null ? -1 : book.getUpdatedAt().toEpochMilli();
+        if (etag != null && webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        // Pre-serialized bytes are written as-is, skipping Jackson for hot titles
+        BookResponseBytesCache.SerializedBook serialized = bookResponseBytesCache.get(book);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        byte[] gzip = acceptsGzip(acceptEncoding) ? serialized.getGzip() : null;
+        if (gzip != null) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return builder.body(serialized.getJson());
+    }
+
+    @GetMapping("/isbn")
+    public BookBatchResponse getBooksByIsbns(@RequestParam("ids") List<String> isbns) {
+        return bookService.getBookResponsesByIsbns(isbns);
+    }
+
+    @GetMapping("/cache/stats")
+    public CacheStatsResponse getIsbnCacheStats() {
+        return bookService.getIsbnCacheStats();
     }
 
     @PostMapping
     public ResponseEntity<BookResponse> addBook(@RequestBody BookRequest request) {
         Book created = bookService.addBook(request);
-        return ResponseEntity.ok(BookMapper.toResponse(created));
+        return withValidators(BookMapper.toResponse(created));
+    }
+
+    // Answers once the book is queued; the commit happens later on the ingest writer
+    @PostMapping("/ingest")
+    public ResponseEntity<BookIngestResponse> ingestBook(@RequestBody BookRequest request) {
+        BookIngestResponse accepted = bookIngestService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/books/ingest/" + accepted.getTrackingId()))
+                .body(accepted);
+    }
+
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<BookIngestResponse> getIngestStatus(@PathVariable String trackingId) {
+        BookIngestResponse status = bookIngestService.getStatus(trackingId);
+        if (status == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public BulkImportResponse importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          InputStream body) throws IOException {
+        return bookImportService.importBooks(body, ImportFormat.fromContentType(contentType));
+    }
+
+    @PatchMapping("/bulk")
+    public BulkWriteResponse updateBooks(@RequestBody BulkUpdateRequest request) {
+        return bookService.updateBooks(request);
+    }
+
+    @DeleteMapping("/bulk")
+    public BulkWriteResponse deleteBooks(@RequestBody BulkDeleteRequest request) {
+        return bookService.deleteBooks(request);
     }
 
     @PutMapping("/isbn/{isbn}")
-    public ResponseEntity<BookResponse> updateBookByIsbn(@PathVariable String isbn, @RequestBody BookRequest updatedBook) {
-        try {
-            Book saved = bookService.updateBookByIsbn(isbn, updatedBook);
-            return ResponseEntity.ok(BookMapper.toResponse(saved));
-        } catch (BookNotFoundException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<BookResponse> updateBookByIsbn(@PathVariable String isbn, @RequestBody BookRequest updatedBook,
+                                                         @RequestParam(defaultValue = "false") boolean upsert,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Book saved = upsert
+                ? bookService.upsertBookByIsbn(isbn, updatedBook, ifMatch)
+                : bookService.updateBookByIsbn(isbn, updatedBook, ifMatch);
+        return withValidators(BookMapper.toResponse(saved));
     }
 
 
     @DeleteMapping("/isbn/{isbn}")
-    public ResponseEntity<Void> deleteBookByIsbn(@PathVariable String isbn) {
-        boolean deleted = bookService.deleteBookByIsbn(isbn);
+    public ResponseEntity<Void> deleteBookByIsbn(@PathVariable String isbn,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean deleted = bookService.deleteBookByIsbn(isbn, ifMatch);
         if (!deleted) return ResponseEntity.notFound().build();
         return ResponseEntity.noContent().build();
     }
 
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" explicitly refuses it
+                return parts.length == 1 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<BookResponse> withValidators(BookResponse book) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        String etag = ETags.of(book);
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (book.getUpdatedAt() != null) {
+            builder.lastModified(book.getUpdatedAt());
+        }
+        return builder.body(book);
+    }
+
 }
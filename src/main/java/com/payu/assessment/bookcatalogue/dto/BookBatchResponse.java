@@ -0,0 +1,30 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class BookBatchResponse {
+
+    @Schema(description = "Books found, in the order their ISBNs were requested")
+    private List<BookResponse> books;
+
+    @Schema(description = "Requested ISBNs with no matching book")
+    private List<String> missing;
+
+    public BookBatchResponse() {
+    }
+
+    public BookBatchResponse(List<BookResponse> books, List<String> missing) {
+        this.books = books;
+        this.missing = missing;
+    }
+
+    public List<BookResponse> getBooks() {
+        return books;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+}
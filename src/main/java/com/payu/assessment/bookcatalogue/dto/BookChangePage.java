@@ -0,0 +1,38 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class BookChangePage {
+
+    @Schema(description = "Changes after the requested sequence number, oldest first")
+    private List<BookChangeResponse> changes;
+
+    @Schema(description = "Pass as since on the next request", example = "1042")
+    private long nextSince;
+
+    @Schema(description = "Whether more changes are already available")
+    private boolean hasMore;
+
+    public BookChangePage() {
+    }
+
+    public BookChangePage(List<BookChangeResponse> changes, long nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    public List<BookChangeResponse> getChanges() {
+        return changes;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,64 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public class BookChangeResponse {
+
+    @Schema(description = "Position in the change log; strictly increasing in commit order", example = "1042")
+    private long seq;
+
+    @Schema(description = "CREATED, UPDATED or DELETED", example = "UPDATED")
+    private BookChangedEvent.Type type;
+
+    @Schema(description = "ISBN of the changed book", example = "123-456-789-0123")
+    private String isbn;
+
+    @Schema(description = "Book version after the change, or the deleted version", example = "3")
+    private Long version;
+
+    @Schema(description = "When the change was committed")
+    private Instant changedAt;
+
+    @Schema(description = "State of the book after the change; absent for deletes")
+    private BookResponse book;
+
+    public BookChangeResponse() {
+    }
+
+    public BookChangeResponse(long seq, BookChangedEvent.Type type, String isbn, Long version,
+                              Instant changedAt, BookResponse book) {
+        this.seq = seq;
+        this.type = type;
+        this.isbn = isbn;
+        this.version = version;
+        this.changedAt = changedAt;
+        this.book = book;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public BookChangedEvent.Type getType() {
+        return type;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public BookResponse getBook() {
+        return book;
+    }
+}
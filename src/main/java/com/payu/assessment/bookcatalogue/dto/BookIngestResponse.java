@@ -0,0 +1,46 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class BookIngestResponse {
+
+    @Schema(description = "Id to look the submission up under /api/books/ingest/{trackingId}",
+            example = "3f0c1e9a-5b8e-4d1f-9a43-2f7c6d0e8b11")
+    private String trackingId;
+
+    @Schema(description = "QUEUED until the writer reaches it, then WRITTEN or FAILED", example = "QUEUED")
+    private IngestStatus status;
+
+    @Schema(description = "ISBN of the submitted book", example = "978-0134685991")
+    private String isbn;
+
+    @Schema(description = "Why the book was not stored, when status is FAILED",
+            example = "A book with this ISBN already exists")
+    private String message;
+
+    public BookIngestResponse() {
+    }
+
+    public BookIngestResponse(String trackingId, IngestStatus status, String isbn, String message) {
+        this.trackingId = trackingId;
+        this.status = status;
+        this.isbn = isbn;
+        this.message = message;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public IngestStatus getStatus() {
+        return status;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,30 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class BookPageResponse {
+
+    @Schema(description = "Books on this page, ordered by insertion")
+    private List<BookResponse> items;
+
+    @Schema(description = "Opaque token for the next page, absent on the last page", example = "aWQ6MTAw")
+    private String nextCursor;
+
+    public BookPageResponse() {
+    }
+
+    public BookPageResponse(List<BookResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookResponse> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
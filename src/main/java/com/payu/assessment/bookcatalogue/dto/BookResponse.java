@@ -1,10 +1,12 @@
 package com.payu.assessment.bookcatalogue.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.payu.assessment.bookcatalogue.model.BookType;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import javax.validation.constraints.Min;
+import java.time.Instant;
 import java.time.LocalDate;
 
 public class BookResponse {
@@ -25,6 +27,16 @@ public class BookResponse {
     @Schema(description = "Type of book", allowableValues = {"HARDCOVER", "SOFTCOVER", "EBOOK", "AUDIOBOOK"}, example = "HARDCOVER")
     private BookType bookType;
 
+    // Carried to the controller for ETag and Last-Modified headers, never serialized
+    @JsonIgnore
+    private Long id;
+
+    @JsonIgnore
+    private Long version;
+
+    @JsonIgnore
+    private Instant updatedAt;
+
     public BookResponse() {
     }
 
@@ -36,6 +48,14 @@ public class BookResponse {
         this.bookType = bookType;
     }
 
+    public BookResponse(String name, String isbn, LocalDate publishDate, Double price, BookType bookType,
+                        Long id, Long version, Instant updatedAt) {
+        this(name, isbn, publishDate, price, bookType);
+        this.id = id;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
     public String getName() {
         return name;
     }
@@ -51,4 +71,13 @@ public class BookResponse {
     public BookType getBookType() {
         return bookType;
     }
+    public Long getId() {
+        return id;
+    }
+    public Long getVersion() {
+        return version;
+    }
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
 }
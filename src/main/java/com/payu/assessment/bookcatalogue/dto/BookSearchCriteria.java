@@ -0,0 +1,92 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public class BookSearchCriteria {
+
+    @Schema(description = "Text to match against the book name", example = "Effective")
+    private String name;
+
+    @Schema(description = "PREFIX (index-backed) or CONTAINS; both ignore case", example = "PREFIX")
+    private NameMatch nameMatch = NameMatch.PREFIX;
+
+    @Schema(description = "Type of book", example = "HARDCOVER")
+    private BookType bookType;
+
+    @Schema(description = "Lowest price, inclusive", example = "10")
+    private Double minPrice;
+
+    @Schema(description = "Highest price, inclusive", example = "200")
+    private Double maxPrice;
+
+    @DateTimeFormat(pattern = "dd/MM/yyyy")
+    @JsonFormat(pattern = "dd/MM/yyyy")
+    @Schema(type = "string", pattern = "dd/MM/yyyy", example = "01/01/2020")
+    private LocalDate publishedFrom;
+
+    @DateTimeFormat(pattern = "dd/MM/yyyy")
+    @JsonFormat(pattern = "dd/MM/yyyy")
+    @Schema(type = "string", pattern = "dd/MM/yyyy", example = "31/12/2025")
+    private LocalDate publishedTo;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public NameMatch getNameMatch() {
+        return nameMatch;
+    }
+
+    public void setNameMatch(NameMatch nameMatch) {
+        this.nameMatch = nameMatch;
+    }
+
+    public BookType getBookType() {
+        return bookType;
+    }
+
+    public void setBookType(BookType bookType) {
+        this.bookType = bookType;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public LocalDate getPublishedFrom() {
+        return publishedFrom;
+    }
+
+    public void setPublishedFrom(LocalDate publishedFrom) {
+        this.publishedFrom = publishedFrom;
+    }
+
+    public LocalDate getPublishedTo() {
+        return publishedTo;
+    }
+
+    public void setPublishedTo(LocalDate publishedTo) {
+        this.publishedTo = publishedTo;
+    }
+}
@@ -0,0 +1,46 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class BookSearchResponse {
+
+    @Schema(description = "Matching books on this page")
+    private List<BookResponse> items;
+
+    @Schema(description = "Zero-based page number", example = "0")
+    private int page;
+
+    @Schema(description = "Requested page size", example = "20")
+    private int size;
+
+    @Schema(description = "Whether another page of results exists")
+    private boolean hasNext;
+
+    public BookSearchResponse() {
+    }
+
+    public BookSearchResponse(List<BookResponse> items, int page, int size, boolean hasNext) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    public List<BookResponse> getItems() {
+        return items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+}
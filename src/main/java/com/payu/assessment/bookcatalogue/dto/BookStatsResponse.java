@@ -0,0 +1,73 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import com.payu.assessment.bookcatalogue.model.BookType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class BookStatsResponse {
+
+    @Schema(description = "Books in the catalogue", example = "1000000")
+    private long books;
+
+    @Schema(description = "Books of each type; books without a type are only in the total")
+    private Map<BookType, Long> booksByType;
+
+    @Schema(description = "Lowest price, absent while no book has one", example = "0.99")
+    private Double minPrice;
+
+    @Schema(description = "Highest price, absent while no book has one", example = "499.0")
+    private Double maxPrice;
+
+    @Schema(description = "Mean price to the cent, absent while no book has one", example = "42.17")
+    private Double averagePrice;
+
+    @Schema(description = "Books published in each year, ascending")
+    private Map<Integer, Long> booksByPublishYear;
+
+    @Schema(description = "When the counters were last checked against the database", example = "2025-10-24T09:15:00Z")
+    private Instant reconciledAt;
+
+    public BookStatsResponse() {
+    }
+
+    public BookStatsResponse(long books, Map<BookType, Long> booksByType, Double minPrice, Double maxPrice,
+                             Double averagePrice, Map<Integer, Long> booksByPublishYear, Instant reconciledAt) {
+        this.books = books;
+        this.booksByType = booksByType;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.averagePrice = averagePrice;
+        this.booksByPublishYear = booksByPublishYear;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getBooks() {
+        return books;
+    }
+
+    public Map<BookType, Long> getBooksByType() {
+        return booksByType;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Double getAveragePrice() {
+        return averagePrice;
+    }
+
+    public Map<Integer, Long> getBooksByPublishYear() {
+        return booksByPublishYear;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+}
@@ -0,0 +1,28 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class BookSuggestion {
+
+    @Schema(description = "ISBN of the suggested book", example = "123-456-789-0123")
+    private String isbn;
+
+    @Schema(description = "Name of the suggested book", example = "The Great Novel")
+    private String name;
+
+    public BookSuggestion() {
+    }
+
+    public BookSuggestion(String isbn, String name) {
+        this.isbn = isbn;
+        this.name = name;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,38 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class BulkDeleteRequest {
+
+    @Schema(description = "ISBNs of the books to delete, at most 10000; give either isbns or filter", example = "[\"978-0134685991\"]")
+    private List<String> isbns;
+
+    @Schema(description = "Criteria selecting the books to delete; give either isbns or filter")
+    private BookSearchCriteria filter;
+
+    public BulkDeleteRequest() {
+    }
+
+    public BulkDeleteRequest(List<String> isbns, BookSearchCriteria filter) {
+        this.isbns = isbns;
+        this.filter = filter;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public void setIsbns(List<String> isbns) {
+        this.isbns = isbns;
+    }
+
+    public BookSearchCriteria getFilter() {
+        return filter;
+    }
+
+    public void setFilter(BookSearchCriteria filter) {
+        this.filter = filter;
+    }
+}
@@ -0,0 +1,36 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class BulkImportError {
+
+    @Schema(description = "1-based line number in the uploaded body", example = "42")
+    private long line;
+
+    @Schema(description = "ISBN of the rejected row, when it could be read", example = "978-0134685991")
+    private String isbn;
+
+    @Schema(description = "Why the row was rejected", example = "A book with this ISBN already exists")
+    private String message;
+
+    public BulkImportError() {
+    }
+
+    public BulkImportError(long line, String isbn, String message) {
+        this.line = line;
+        this.isbn = isbn;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,55 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class BulkImportResponse {
+
+    @Schema(description = "Data rows read from the body", example = "1000000")
+    private long received;
+
+    @Schema(description = "Rows stored as new books", example = "999990")
+    private long imported;
+
+    @Schema(description = "Rows rejected", example = "10")
+    private long failed;
+
+    @Schema(description = "Per-row rejection details, capped at catalogue.import.max-errors")
+    private List<BulkImportError> errors;
+
+    @Schema(description = "True when more rows failed than are listed in errors")
+    private boolean errorsTruncated;
+
+    public BulkImportResponse() {
+    }
+
+    public BulkImportResponse(long received, long imported, long failed,
+                              List<BulkImportError> errors, boolean errorsTruncated) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<BulkImportError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+}
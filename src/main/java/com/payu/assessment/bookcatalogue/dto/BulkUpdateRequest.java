@@ -0,0 +1,91 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class BulkUpdateRequest {
+
+    @Schema(description = "ISBNs of the books to update, at most 10000; give either isbns or filter", example = "[\"978-0134685991\"]")
+    private List<String> isbns;
+
+    @Schema(description = "Criteria selecting the books to update; give either isbns or filter")
+    private BookSearchCriteria filter;
+
+    @Schema(description = "New price for every selected book", example = "19.99")
+    private Double price;
+
+    @Schema(description = "Relative price change in percent, rounded to cents; not combined with price", example = "-10")
+    private Double priceChangePercent;
+
+    @Schema(description = "New type for every selected book", example = "SOFTCOVER")
+    private BookType bookType;
+
+    @JsonFormat(pattern = "dd/MM/yyyy")
+    @Schema(type = "string", pattern = "dd/MM/yyyy", example = "31/12/2025")
+    private LocalDate publishDate;
+
+    public BulkUpdateRequest() {
+    }
+
+    public BulkUpdateRequest(List<String> isbns, BookSearchCriteria filter, Double price,
+                             Double priceChangePercent, BookType bookType, LocalDate publishDate) {
+        this.isbns = isbns;
+        this.filter = filter;
+        this.price = price;
+        this.priceChangePercent = priceChangePercent;
+        this.bookType = bookType;
+        this.publishDate = publishDate;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public void setIsbns(List<String> isbns) {
+        this.isbns = isbns;
+    }
+
+    public BookSearchCriteria getFilter() {
+        return filter;
+    }
+
+    public void setFilter(BookSearchCriteria filter) {
+        this.filter = filter;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Double getPriceChangePercent() {
+        return priceChangePercent;
+    }
+
+    public void setPriceChangePercent(Double priceChangePercent) {
+        this.priceChangePercent = priceChangePercent;
+    }
+
+    public BookType getBookType() {
+        return bookType;
+    }
+
+    public void setBookType(BookType bookType) {
+        this.bookType = bookType;
+    }
+
+    public LocalDate getPublishDate() {
+        return publishDate;
+    }
+
+    public void setPublishDate(LocalDate publishDate) {
+        this.publishDate = publishDate;
+    }
+}
@@ -0,0 +1,30 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class BulkWriteResponse {
+
+    @Schema(description = "Books updated or deleted", example = "4200")
+    private long affected;
+
+    @Schema(description = "Requested ISBNs that matched no book")
+    private List<String> missing;
+
+    public BulkWriteResponse() {
+    }
+
+    public BulkWriteResponse(long affected, List<String> missing) {
+        this.affected = affected;
+        this.missing = missing;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+}
@@ -0,0 +1,52 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class CacheStatsResponse {
+
+    @Schema(description = "Number of cached entries", example = "1024")
+    private long size;
+
+    @Schema(description = "Lookups served from the cache", example = "95000")
+    private long hitCount;
+
+    @Schema(description = "Lookups that had to load from the database", example = "5000")
+    private long missCount;
+
+    @Schema(description = "Ratio of hits to all lookups", example = "0.95")
+    private double hitRate;
+
+    @Schema(description = "Entries removed because of the size or TTL bound", example = "12")
+    private long evictionCount;
+
+    public CacheStatsResponse() {
+    }
+
+    public CacheStatsResponse(long size, long hitCount, long missCount, double hitRate, long evictionCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,37 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv"),
+    // RFC 8742 sequence: one header array of column names, then one array per book
+    CBOR(MediaType.parseMediaType("application/cbor-seq"), "cbor");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParameter(String format) {
+        for (ExportFormat candidate : values()) {
+            if (candidate.name().equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new InvalidRequestException("Unsupported export format: " + format
+                + "; use ndjson, csv or cbor");
+    }
+}
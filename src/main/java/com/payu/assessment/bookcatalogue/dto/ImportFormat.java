@@ -0,0 +1,27 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+    CSV(MediaType.parseMediaType("text/csv")),
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"));
+
+    private final MediaType mediaType;
+
+    ImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType requested = MediaType.parseMediaType(contentType);
+            for (ImportFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(requested)) {
+                    return format;
+                }
+            }
+        }
+        throw new InvalidRequestException("Unsupported import content type: " + contentType);
+    }
+}
@@ -0,0 +1,7 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+public enum IngestStatus {
+    QUEUED,
+    WRITTEN,
+    FAILED
+}
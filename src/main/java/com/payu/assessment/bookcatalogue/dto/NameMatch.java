@@ -0,0 +1,5 @@
+package com.payu.assessment.bookcatalogue.dto;
+
+public enum NameMatch {
+    PREFIX, CONTAINS
+}
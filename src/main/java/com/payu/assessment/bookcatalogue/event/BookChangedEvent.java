@@ -0,0 +1,88 @@
+package com.payu.assessment.bookcatalogue.event;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.model.BookChange;
+
+public class BookChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final BookResponse previous;
+    private final BookResponse current;
+    private final boolean replicated;
+    // Change log position; the change log assigns it just before the change commits, 0 until then
+    private volatile long seq;
+
+    private BookChangedEvent(Type type, BookResponse previous, BookResponse current, boolean replicated) {
+        this.type = type;
+        this.previous = previous;
+        this.current = current;
+        this.replicated = replicated;
+    }
+
+    public static BookChangedEvent created(BookResponse current) {
+        return new BookChangedEvent(Type.CREATED, null, current, false);
+    }
+
+    public static BookChangedEvent updated(BookResponse previous, BookResponse current) {
+        return new BookChangedEvent(Type.UPDATED, previous, current, false);
+    }
+
+    public static BookChangedEvent deleted(BookResponse previous) {
+        return new BookChangedEvent(Type.DELETED, previous, null, false);
+    }
+
+    // A change another node made and recorded, replayed here so local caches and indexes follow it
+    public static BookChangedEvent replicated(Type type, BookResponse previous, BookResponse current) {
+        return new BookChangedEvent(type, previous, current, true);
+    }
+
+    // Rebuilds the event from its change log entry
+    public static BookChangedEvent replicated(BookChange change) {
+        BookChangedEvent event;
+        if (change.getType() == Type.DELETED) {
+            event = replicated(change.getType(), reference(change, change.getIsbn()), null);
+        } else {
+            BookResponse current = new BookResponse(change.getName(), change.getIsbn(), change.getPublishDate(),
+                    change.getPrice(), change.getBookType(), change.getBookId(), change.getVersion(),
+                    change.getChangedAt());
+            // ISBNs are immutable, so an update replaced the book under the same ISBN
+            event = replicated(change.getType(),
+                    change.getType() == Type.CREATED ? null : reference(change, change.getIsbn()), current);
+        }
+        event.setSeq(change.getSeq());
+        return event;
+    }
+
+    // Listeners only need the identity of the book a change replaced or removed
+    private static BookResponse reference(BookChange change, String isbn) {
+        return new BookResponse(null, isbn, null, null, null, change.getBookId(), change.getVersion(), null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public BookResponse getPrevious() {
+        return previous;
+    }
+
+    public BookResponse getCurrent() {
+        return current;
+    }
+
+    public boolean isReplicated() {
+        return replicated;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+}
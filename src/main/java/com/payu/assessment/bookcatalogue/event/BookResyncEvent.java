@@ -0,0 +1,25 @@
+package com.payu.assessment.bookcatalogue.event;
+
+// Changes were missed, for example pruned from the change log before this node read them. Every view
+// derived from the books table drops what it holds or rebuilds from the table, since no single book
+// can be named as stale.
+public class BookResyncEvent {
+
+    private final long fromSeq;
+    private final long toSeq;
+
+    public BookResyncEvent(long fromSeq, long toSeq) {
+        this.fromSeq = fromSeq;
+        this.toSeq = toSeq;
+    }
+
+    // First change log entry that was missed
+    public long getFromSeq() {
+        return fromSeq;
+    }
+
+    // Entry the log resumes at; everything from here on is delivered as usual
+    public long getToSeq() {
+        return toSeq;
+    }
+}
@@ -0,0 +1,7 @@
+package com.payu.assessment.bookcatalogue.exception;
+
+public class ChangesExpiredException extends RuntimeException {
+    public ChangesExpiredException(String message) {
+        super(message);
+    }
+}
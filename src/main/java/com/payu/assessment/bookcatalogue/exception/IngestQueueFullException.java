@@ -0,0 +1,7 @@
+package com.payu.assessment.bookcatalogue.exception;
+
+public class IngestQueueFullException extends RuntimeException {
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
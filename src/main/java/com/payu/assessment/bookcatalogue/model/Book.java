@@ -1,22 +1,48 @@
 package com.payu.assessment.bookcatalogue.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
+// Cached only when the second-level cache is switched on (l2cache profile); ISBNs never change once stored,
+// so the ISBN-to-id mapping can be cached alongside the rows
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@NaturalIdCache(region = "books-by-isbn")
 @Table(name = "books", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "isbn")
+        @UniqueConstraint(name = "uk_books_isbn", columnNames = "isbn")
+}, indexes = {
+        @Index(name = "idx_books_name", columnList = "name"),
+        @Index(name = "idx_books_name_lower", columnList = "name_lower"),
+        @Index(name = "idx_books_type_price", columnList = "bookType, price"),
+        @Index(name = "idx_books_price", columnList = "price"),
+        @Index(name = "idx_books_publish_date", columnList = "publishDate")
 })
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+    @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    // Maintained by the database, so name searches can ignore case and still use an index; only for queries,
+    // as an entity's copy is not refreshed when its name changes
+    @Column(name = "name_lower", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(name))")
+    private String nameLower;
+
+    @NaturalId
+    @Column(nullable = false)
     private String isbn;
 
     private LocalDate publishDate;
@@ -26,6 +52,11 @@ public class Book {
     @Enumerated(EnumType.STRING)
     private BookType bookType;
 
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
+
     public Book() {
     }
 
@@ -84,4 +115,27 @@ public class Book {
     public void setBookType(BookType bookType) {
         this.bookType = bookType;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        // Millisecond precision survives the database round trip unchanged
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
 }
@@ -0,0 +1,124 @@
+package com.payu.assessment.bookcatalogue.model;
+
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+
+import javax.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "book_changes", indexes = {
+        @Index(name = "idx_book_changes_changed_at", columnList = "changedAt")
+})
+public class BookChange {
+
+    // Assigned from ChangeSequence at commit time, so sequence order is commit order
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookChangedEvent.Type type;
+
+    @Column(nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private String isbn;
+
+    private String name;
+
+    private LocalDate publishDate;
+
+    private Double price;
+
+    @Enumerated(EnumType.STRING)
+    private BookType bookType;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    // Node that made the change; it skips its own entries when following the log
+    private String origin;
+
+    public BookChange() {
+    }
+
+    public BookChange(Long seq, BookChangedEvent.Type type, Long bookId, String isbn, Instant changedAt) {
+        this.seq = seq;
+        this.type = type;
+        this.bookId = bookId;
+        this.isbn = isbn;
+        this.changedAt = changedAt;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public BookChangedEvent.Type getType() {
+        return type;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDate getPublishDate() {
+        return publishDate;
+    }
+
+    public void setPublishDate(LocalDate publishDate) {
+        this.publishDate = publishDate;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public BookType getBookType() {
+        return bookType;
+    }
+
+    public void setBookType(BookType bookType) {
+        this.bookType = bookType;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+}
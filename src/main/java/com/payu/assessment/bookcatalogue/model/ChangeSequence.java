@@ -0,0 +1,37 @@
+package com.payu.assessment.bookcatalogue.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "book_change_sequence")
+public class ChangeSequence {
+
+    public static final long BOOK_CHANGES = 1L;
+
+    @Id
+    private Long id;
+
+    private long lastSeq;
+
+    public ChangeSequence() {
+    }
+
+    public ChangeSequence(Long id, long lastSeq) {
+        this.id = id;
+        this.lastSeq = lastSeq;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
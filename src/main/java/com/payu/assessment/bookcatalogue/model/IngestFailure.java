@@ -0,0 +1,82 @@
+package com.payu.assessment.bookcatalogue.model;
+
+import javax.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A book accepted for asynchronous ingest that could not be stored. The submitted values are kept,
+// so the row can be fixed and sent again without the client having held on to it.
+@Entity
+@Table(name = "book_ingest_failures", indexes = {
+        @Index(name = "idx_book_ingest_failures_failed_at", columnList = "failedAt")
+})
+public class IngestFailure {
+
+    @Id
+    @Column(length = 36)
+    private String trackingId;
+
+    private String isbn;
+
+    private String name;
+
+    private LocalDate publishDate;
+
+    private Double price;
+
+    @Enumerated(EnumType.STRING)
+    private BookType bookType;
+
+    @Column(nullable = false, length = 1000)
+    private String reason;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+
+    public IngestFailure() {
+    }
+
+    public IngestFailure(String trackingId, String isbn, String name, LocalDate publishDate, Double price,
+                         BookType bookType, String reason, Instant failedAt) {
+        this.trackingId = trackingId;
+        this.isbn = isbn;
+        this.name = name;
+        this.publishDate = publishDate;
+        this.price = price;
+        this.bookType = bookType;
+        this.reason = reason;
+        this.failedAt = failedAt;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate getPublishDate() {
+        return publishDate;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public BookType getBookType() {
+        return bookType;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Instant getFailedAt() {
+        return failedAt;
+    }
+}
@@ -0,0 +1,183 @@
+package com.payu.assessment.bookcatalogue.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Per-client token buckets in front of the API. Over-limit requests get 429 before reaching a
+// controller, so a flood costs one map lookup and one CAS per request instead of a worker and a connection.
+@Component
+@ConditionalOnProperty(name = "catalogue.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String OVERFLOW_KEY = "*";
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int pointCost;
+    private final int listCost;
+    private final int writeCost;
+    private final int maxClients;
+    private final String keyHeader;
+    private final LongSupplier clock;
+    private final Counter rejected;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimitFilter(@Value("${catalogue.rate-limit.capacity:100}") int capacity,
+                           @Value("${catalogue.rate-limit.refill-per-second:50}") int refillPerSecond,
+                           @Value("${catalogue.rate-limit.cost.point:1}") int pointCost,
+                           @Value("${catalogue.rate-limit.cost.list:5}") int listCost,
+                           @Value("${catalogue.rate-limit.cost.write:5}") int writeCost,
+                           @Value("${catalogue.rate-limit.max-clients:100000}") int maxClients,
+                           @Value("${catalogue.rate-limit.key-header:}") String keyHeader,
+                           MeterRegistry meterRegistry) {
+        this(capacity, refillPerSecond, pointCost, listCost, writeCost, maxClients, keyHeader, meterRegistry,
+                System::nanoTime);
+    }
+
+    RateLimitFilter(int capacity, int refillPerSecond, int pointCost, int listCost, int writeCost,
+                    int maxClients, String keyHeader, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (refillPerSecond < 1) {
+            throw new IllegalArgumentException("catalogue.rate-limit.refill-per-second must be positive");
+        }
+        if (Math.max(pointCost, Math.max(listCost, writeCost)) > capacity) {
+            throw new IllegalArgumentException("catalogue.rate-limit.capacity must cover the largest request cost");
+        }
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+        this.burstNanos = capacity * nanosPerToken;
+        this.pointCost = pointCost;
+        this.listCost = listCost;
+        this.writeCost = writeCost;
+        this.maxClients = maxClients;
+        this.keyHeader = keyHeader == null || keyHeader.trim().isEmpty() ? null : keyHeader.trim();
+        this.clock = clock;
+        this.rejected = Counter.builder("books.ratelimit.rejected")
+                .description("API requests rejected with 429 by the per-client rate limit")
+                .register(meterRegistry);
+        Gauge.builder("books.ratelimit.clients", buckets, Map::size)
+                .description("Clients currently tracked by the rate limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = tryAcquire(clientKey(request), costOf(request));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rejected.increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests, retry after " + retryAfterSeconds + "s");
+    }
+
+    // Returns 0 when admitted, otherwise the nanoseconds until the request would fit
+    long tryAcquire(String key, int cost) {
+        Bucket bucket = bucketFor(key);
+        long now = clock.getAsLong();
+        long increment = cost * nanosPerToken;
+        while (true) {
+            long current = bucket.fullAt.get();
+            long next = Math.max(current, now) + increment;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A full bucket behaves exactly like a missing one, so dropping it loses nothing
+    @Scheduled(fixedDelayString = "${catalogue.rate-limit.idle-sweep:PT1M}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.fullAt.get() - now <= 0);
+    }
+
+    int trackedClients() {
+        return buckets.size();
+    }
+
+    private Bucket bucketFor(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Past the limit, new clients share one bucket so a key-spraying client cannot grow the map
+        if (buckets.size() >= maxClients) {
+            key = OVERFLOW_KEY;
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(clock.getAsLong()));
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (keyHeader != null) {
+            String key = request.getHeader(keyHeader);
+            if (key != null && !key.isEmpty()) {
+                return key;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private int costOf(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method)) {
+            return writeCost;
+        }
+        String path = path(request);
+        if (path.startsWith("/api/books/isbn/") || path.startsWith("/api/books/ingest/") || path.equals("/api/books/suggest")
+                || path.equals("/api/books/cache/stats") || path.equals("/api/books/stats")) {
+            return pointCost;
+        }
+        return listCost;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // GCRA form of a token bucket: the instant the bucket will be full again. Each request pushes it
+    // forward by its cost and is refused if that lands further than the burst capacity ahead of now.
+    private static final class Bucket {
+        private final AtomicLong fullAt;
+
+        private Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+    }
+}
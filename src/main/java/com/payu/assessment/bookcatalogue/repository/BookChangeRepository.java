@@ -0,0 +1,22 @@
+package com.payu.assessment.bookcatalogue.repository;
+
+import com.payu.assessment.bookcatalogue.model.BookChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface BookChangeRepository extends JpaRepository<BookChange, Long> {
+
+    List<BookChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    @Modifying
+    @Query("delete from BookChange c where c.changedAt < :cutoff")
+    int deleteByChangedAtBefore(@Param("cutoff") Instant cutoff);
+}
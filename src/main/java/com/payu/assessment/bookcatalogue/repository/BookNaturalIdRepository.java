@@ -0,0 +1,10 @@
+package com.payu.assessment.bookcatalogue.repository;
+
+import com.payu.assessment.bookcatalogue.model.Book;
+
+import java.util.Optional;
+
+public interface BookNaturalIdRepository {
+
+    Optional<Book> findByIsbn(String isbn);
+}
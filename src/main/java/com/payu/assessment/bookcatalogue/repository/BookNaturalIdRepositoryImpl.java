@@ -0,0 +1,32 @@
+package com.payu.assessment.bookcatalogue.repository;
+
+import com.payu.assessment.bookcatalogue.model.Book;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.Optional;
+
+public class BookNaturalIdRepositoryImpl implements BookNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    public BookNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // With the second-level cache on, a natural-id load is answered from the ISBN and row caches without
+    // SQL. Without it, the same load takes two statements (ISBN to id, then the row), so a plain query is used.
+    @Override
+    @Transactional
+    public Optional<Book> findByIsbn(String isbn) {
+        Session session = entityManager.unwrap(Session.class);
+        if (session.getSessionFactory().getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            return session.bySimpleNaturalId(Book.class).loadOptional(isbn);
+        }
+        return entityManager.createQuery("select b from Book b where b.isbn = :isbn", Book.class)
+                .setParameter("isbn", isbn)
+                .getResultStream()
+                .findFirst();
+    }
+}
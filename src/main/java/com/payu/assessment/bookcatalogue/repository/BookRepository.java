@@ -1,14 +1,61 @@
 package com.payu.assessment.bookcatalogue.repository;
 
 import com.payu.assessment.bookcatalogue.model.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-    Optional<Book> findByIsbn(String isbn);
-    boolean existsByIsbn(String isbn);
-    void deleteByIsbn(String isbn);
+public interface BookRepository extends JpaRepository<Book, Long>, BookSearchRepository, BookNaturalIdRepository {
+    // Derived reads are cacheable; the hint is ignored unless the query cache is on (l2cache profile)
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Book> streamAllByOrderByIdAsc();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Book> streamByIdGreaterThanOrderByIdAsc(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Book> findByIsbnIn(Collection<String> isbns);
+
+    @Modifying
+    @Query("delete from Book b where b.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("select b.bookType, count(b) from Book b group by b.bookType")
+    List<Object[]> countByBookType();
+
+    @Query("select year(b.publishDate), count(b) from Book b where b.publishDate is not null group by year(b.publishDate)")
+    List<Object[]> countByPublishYear();
+
+    @Query("select count(b.price), sum(b.price) from Book b")
+    List<Object[]> sumPrices();
+
+    // Both ends are single probes of idx_books_price
+    @Query("select min(b.price), max(b.price) from Book b")
+    List<Object[]> findPriceRange();
 }
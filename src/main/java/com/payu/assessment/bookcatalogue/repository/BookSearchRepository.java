@@ -0,0 +1,22 @@
+package com.payu.assessment.bookcatalogue.repository;
+
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookSearchRepository {
+
+    Slice<Book> findSlice(Specification<Book> specification, Pageable pageable);
+
+    List<Book> findBatchForUpdate(Specification<Book> specification, long afterId, int limit);
+
+    int updateByIds(Collection<Long> ids, Double price, Double priceFactor, BookType bookType,
+                    LocalDate publishDate, Instant updatedAt);
+}
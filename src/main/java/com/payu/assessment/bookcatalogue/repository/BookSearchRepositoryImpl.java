@@ -0,0 +1,103 @@
+package com.payu.assessment.bookcatalogue.repository;
+
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    private final EntityManager entityManager;
+
+    public BookSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Unlike JpaSpecificationExecutor.findAll(spec, pageable) this never issues a count query
+    @Override
+    public Slice<Book> findSlice(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Book> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+
+        List<Book> books = typedQuery.getResultList();
+        boolean hasNext = books.size() > pageable.getPageSize();
+        if (hasNext) {
+            books = books.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(books, pageable, hasNext);
+    }
+
+    // Keyset over id, so rows that stop matching once updated are not revisited or skipped
+    @Override
+    public List<Book> findBatchForUpdate(Specification<Book> specification, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+
+        Predicate after = cb.greaterThan(root.get("id"), afterId);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        query.where(predicate == null ? after : cb.and(after, predicate));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // One statement for the whole batch; null arguments leave the column unchanged
+    @Override
+    public int updateByIds(Collection<Long> ids, Double price, Double priceFactor, BookType bookType,
+                           LocalDate publishDate, Instant updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Book> update = cb.createCriteriaUpdate(Book.class);
+        Root<Book> root = update.from(Book.class);
+
+        if (price != null) {
+            update.set(root.<Double>get("price"), price);
+        } else if (priceFactor != null) {
+            Expression<Double> scaled = cb.prod(root.<Double>get("price"), priceFactor);
+            update.set(root.<Double>get("price"), cb.function("round", Double.class, scaled, cb.literal(2)));
+        }
+        if (bookType != null) {
+            update.set(root.<BookType>get("bookType"), bookType);
+        }
+        if (publishDate != null) {
+            update.set(root.<LocalDate>get("publishDate"), publishDate);
+        }
+        // Rows stored before versioning have none; they start at 1 like a first update of a new row
+        update.set(root.<Long>get("version"), cb.sum(cb.coalesce(root.<Long>get("version"), 0L), 1L));
+        update.set(root.<Instant>get("updatedAt"), updatedAt);
+        update.where(root.get("id").in(ids));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
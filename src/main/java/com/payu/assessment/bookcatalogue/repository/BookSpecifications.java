@@ -0,0 +1,53 @@
+package com.payu.assessment.bookcatalogue.repository;
+
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Locale;
+
+public class BookSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    // Both name matches ignore case. Leading literal text keeps "name_lower LIKE 'x%'" on idx_books_name_lower.
+    public static Specification<Book> nameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("nameLower"),
+                escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> nameContains(String text) {
+        return (root, query, cb) -> cb.like(root.get("nameLower"),
+                "%" + escapeLike(text.toLowerCase(Locale.ROOT)) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> isbnIn(Collection<String> isbns) {
+        return (root, query, cb) -> root.get("isbn").in(isbns);
+    }
+
+    public static Specification<Book> hasType(BookType bookType) {
+        return (root, query, cb) -> cb.equal(root.get("bookType"), bookType);
+    }
+
+    public static Specification<Book> priceAtLeast(Double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Book> priceAtMost(Double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Book> publishedOnOrAfter(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("publishDate"), from);
+    }
+
+    public static Specification<Book> publishedOnOrBefore(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("publishDate"), to);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,18 @@
+package com.payu.assessment.bookcatalogue.repository;
+
+import com.payu.assessment.bookcatalogue.model.IngestFailure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IngestFailureRepository extends JpaRepository<IngestFailure, String> {
+
+    @Modifying
+    @Query("delete from IngestFailure f where f.failedAt < :cutoff")
+    int deleteByFailedAtBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,360 @@
+package com.payu.assessment.bookcatalogue.search;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSuggestion;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+public class BookNameIndex implements SmartInitializingSingleton {
+
+    static final int MAX_TOKENS_PER_TITLE = 16;
+    static final int MAX_TOKEN_LENGTH = 32;
+    static final int MIN_TYPO_LENGTH = 4;
+    static final int MAX_PREFIX_EXPANSIONS = 256;
+    // A very common word would otherwise have every book scored; past this many candidates a term stops
+    // collecting, exact matches first, so suggestions for such words come from a subset of the catalogue
+    static final int MAX_CANDIDATES_PER_TERM = 10_000;
+    static final int MAX_LIMIT = 50;
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int TYPO_SCORE = 1;
+    private static final int LEADING_TOKEN_BONUS = 1;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final BookService bookService;
+
+    private final Map<Long, IndexedBook> books = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    // Every indexed token under each of its one-character deletions, so typo lookups are hash probes
+    private final Map<String, Set<String>> deletions = new ConcurrentHashMap<>();
+    // Ids deleted while the startup scan runs, so a row read before its delete is not resurrected
+    private volatile Set<Long> removedDuringBuild;
+    // Ids the scan or a change indexed while a resync runs; every other indexed book is gone from the table
+    private Set<Long> indexedDuringResync;
+    private final Object resyncLock = new Object();
+
+    @Autowired
+    public BookNameIndex(BookService bookService) {
+        this.bookService = bookService;
+    }
+
+    // Reading the catalogue is O(books), so it runs beside startup to keep time-to-serving flat
+    @Override
+    public void afterSingletonsInstantiated() {
+        Thread builder = new Thread(this::build, "book-name-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void build() {
+        synchronized (this) {
+            removedDuringBuild = new HashSet<>();
+        }
+        try {
+            bookService.streamAllBooks(book -> indexStored(book.getId(), book.getIsbn(), book.getName(), book.getVersion()));
+        } finally {
+            synchronized (this) {
+                removedDuringBuild = null;
+            }
+        }
+    }
+
+    // Missed changes leave books that no longer exist, so the table is read again and what it lacks is dropped
+    @EventListener
+    public void onResync(BookResyncEvent event) {
+        Thread builder = new Thread(this::resync, "book-name-index-resync");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void resync() {
+        synchronized (resyncLock) {
+            synchronized (this) {
+                indexedDuringResync = new HashSet<>();
+            }
+            try {
+                build();
+                synchronized (this) {
+                    for (Long id : new ArrayList<>(books.keySet())) {
+                        if (!indexedDuringResync.contains(id)) {
+                            removeTokens(id, books.remove(id));
+                        }
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    indexedDuringResync = null;
+                }
+            }
+        }
+    }
+
+    public boolean isBuilding() {
+        return removedDuringBuild != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(event.getPrevious().getId());
+        } else {
+            BookResponse current = event.getCurrent();
+            index(current.getId(), current.getIsbn(), current.getName(), current.getVersion());
+        }
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    public List<BookSuggestion> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Every term must match; only the last one is still being typed and so matches as a prefix
+        Map<Long, Integer> scores = null;
+        for (int i = 0; i < terms.size(); i++) {
+            Map<Long, Integer> termScores = match(terms.get(i), i == terms.size() - 1);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        String lead = terms.get(0);
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, Candidate.RANKING.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            IndexedBook book = books.get(entry.getKey());
+            if (book == null) {
+                continue;
+            }
+            int score = entry.getValue();
+            if (book.tokens.get(0).startsWith(lead)) {
+                score += LEADING_TOKEN_BONUS;
+            }
+            top.add(new Candidate(book, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(Candidate.RANKING);
+        return ranked.stream()
+                .map(candidate -> new BookSuggestion(candidate.book.isbn, candidate.book.name))
+                .collect(Collectors.toList());
+    }
+
+    synchronized void index(Long id, String isbn, String name, Long version) {
+        if (indexedDuringResync != null) {
+            indexedDuringResync.add(id);
+        }
+        IndexedBook existing = books.get(id);
+        if (existing != null && existing.version != null && version != null && existing.version > version) {
+            return;
+        }
+        List<String> tokens = tokenize(name);
+        removeTokens(id, existing);
+        if (tokens.isEmpty()) {
+            books.remove(id);
+            return;
+        }
+
+        books.put(id, new IndexedBook(isbn, name, version, tokens));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> {
+                for (String deletion : deletionsOf(key)) {
+                    deletions.computeIfAbsent(deletion, d -> ConcurrentHashMap.newKeySet()).add(key);
+                }
+                return ConcurrentHashMap.newKeySet();
+            }).add(id);
+        }
+    }
+
+    synchronized void remove(Long id) {
+        if (removedDuringBuild != null) {
+            removedDuringBuild.add(id);
+        }
+        removeTokens(id, books.remove(id));
+    }
+
+    private synchronized void indexStored(Long id, String isbn, String name, Long version) {
+        if (!removedDuringBuild.contains(id)) {
+            index(id, isbn, name, version);
+        }
+    }
+
+    private void removeTokens(Long id, IndexedBook book) {
+        if (book == null) {
+            return;
+        }
+        for (String token : book.tokens) {
+            Set<Long> ids = postings.get(token);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+                for (String deletion : deletionsOf(token)) {
+                    Set<String> siblings = deletions.get(deletion);
+                    if (siblings != null) {
+                        siblings.remove(token);
+                        if (siblings.isEmpty()) {
+                            deletions.remove(deletion);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    Map<Long, Integer> match(String term, boolean prefix) {
+        Map<Long, Integer> scores = new HashMap<>();
+        if (!addPostings(scores, postings.get(term), EXACT_SCORE)) {
+            return scores;
+        }
+
+        if (prefix) {
+            int expansions = 0;
+            for (Set<Long> ids : postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS || !addPostings(scores, ids, PREFIX_SCORE)) {
+                    return scores;
+                }
+            }
+        }
+
+        if (term.length() >= MIN_TYPO_LENGTH) {
+            for (String candidate : typoCandidates(term)) {
+                if (!addPostings(scores, postings.get(candidate), TYPO_SCORE)) {
+                    return scores;
+                }
+            }
+        }
+        return scores;
+    }
+
+    // Tokens within one insertion, deletion, substitution or adjacent swap of the term
+    private Set<String> typoCandidates(String term) {
+        Set<String> candidates = new HashSet<>(deletions.getOrDefault(term, Collections.emptySet()));
+        for (String deletion : deletionsOf(term)) {
+            if (postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+            candidates.addAll(deletions.getOrDefault(deletion, Collections.emptySet()));
+        }
+        candidates.remove(term);
+        return candidates;
+    }
+
+    // Returns false once the term has collected its candidate cap
+    private static boolean addPostings(Map<Long, Integer> scores, Set<Long> ids, int score) {
+        if (ids == null) {
+            return true;
+        }
+        for (Long id : ids) {
+            scores.merge(id, score, Math::max);
+            if (scores.size() >= MAX_CANDIDATES_PER_TERM) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> deletionsOf(String token) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < token.length(); i++) {
+            result.add(token.substring(0, i) + token.substring(i + 1));
+        }
+        return result;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+            if (tokens.size() == MAX_TOKENS_PER_TITLE) {
+                break;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static class IndexedBook {
+        private final String isbn;
+        private final String name;
+        private final Long version;
+        private final List<String> tokens;
+
+        private IndexedBook(String isbn, String name, Long version, List<String> tokens) {
+            this.isbn = isbn;
+            this.name = name;
+            this.version = version;
+            this.tokens = tokens;
+        }
+    }
+
+    private static class Candidate {
+        private static final Comparator<Candidate> RANKING = Comparator
+                .comparingInt((Candidate candidate) -> -candidate.score)
+                .thenComparingInt(candidate -> candidate.book.name.length())
+                .thenComparing(candidate -> candidate.book.name, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(candidate -> candidate.book.isbn);
+
+        private final IndexedBook book;
+        private final int score;
+
+        private Candidate(IndexedBook book, int score) {
+            this.book = book;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.payu.assessment.bookcatalogue.service;
+
+import com.payu.assessment.bookcatalogue.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+
+    long exportBooks(OutputStream out, ExportFormat format, long afterId, long limit) throws IOException;
+}
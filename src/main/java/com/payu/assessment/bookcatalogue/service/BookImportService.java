@@ -0,0 +1,12 @@
+package com.payu.assessment.bookcatalogue.service;
+
+import com.payu.assessment.bookcatalogue.dto.BulkImportResponse;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BookImportService {
+
+    BulkImportResponse importBooks(InputStream body, ImportFormat format) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.payu.assessment.bookcatalogue.service;
+
+import com.payu.assessment.bookcatalogue.dto.BookIngestResponse;
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+
+public interface BookIngestService {
+
+    BookIngestResponse submit(BookRequest request);
+
+    BookIngestResponse getStatus(String trackingId);
+}
@@ -1,19 +1,46 @@
 package com.payu.assessment.bookcatalogue.service;
 
+import com.payu.assessment.bookcatalogue.dto.BookBatchResponse;
 import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSearchCriteria;
+import com.payu.assessment.bookcatalogue.dto.BulkDeleteRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkUpdateRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkWriteResponse;
+import com.payu.assessment.bookcatalogue.dto.CacheStatsResponse;
 import com.payu.assessment.bookcatalogue.model.Book;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookService {
 
-    List<Book> getAllBooks();
+    Slice<Book> getBooksPage(String cursor, int size);
+
+    Slice<Book> searchBooks(BookSearchCriteria criteria, int page, int size, String sort);
+
+    void streamAllBooks(Consumer<Book> consumer);
+
+    void streamBooks(long afterId, long limit, Consumer<Book> consumer);
 
     Book getBookByIsbn(String isbn);
 
-    boolean deleteBookByIsbn(String isbn);
+    BookResponse getBookResponseByIsbn(String isbn);
+
+    BookBatchResponse getBookResponsesByIsbns(List<String> isbns);
+
+    CacheStatsResponse getIsbnCacheStats();
+
+    boolean deleteBookByIsbn(String isbn, String ifMatch);
 
     Book addBook(BookRequest bookRequest);
 
-    Book updateBookByIsbn(String isbn, BookRequest bookRequest);
+    Book updateBookByIsbn(String isbn, BookRequest bookRequest, String ifMatch);
+
+    Book upsertBookByIsbn(String isbn, BookRequest bookRequest, String ifMatch);
+
+    BulkWriteResponse updateBooks(BulkUpdateRequest request);
+
+    BulkWriteResponse deleteBooks(BulkDeleteRequest request);
 }
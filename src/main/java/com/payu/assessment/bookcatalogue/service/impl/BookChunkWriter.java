@@ -0,0 +1,104 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.util.BookMapper;
+import com.payu.assessment.bookcatalogue.util.ConstraintViolations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Batched insert path shared by bulk import and write-behind ingest. Rows arrive validated and with distinct
+// ISBNs; each one is reported back to the caller exactly once, as written or as failed with a reason.
+@Component
+class BookChunkWriter {
+
+    static final String ALREADY_EXISTS = "A book with this ISBN already exists";
+
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    BookChunkWriter(BookRepository bookRepository,
+                    EntityManager entityManager,
+                    PlatformTransactionManager transactionManager,
+                    ApplicationEventPublisher eventPublisher) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    <T> void write(Collection<T> chunk, Function<T, BookRequest> request, Outcome<T> outcome) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> isbns = chunk.stream().map(row -> request.apply(row).getIsbn()).collect(Collectors.toSet());
+        Set<String> existing = new HashSet<>(bookRepository.findExistingIsbns(isbns));
+        List<T> rows = new ArrayList<>(chunk.size());
+        List<T> taken = new ArrayList<>();
+        for (T row : chunk) {
+            (existing.contains(request.apply(row).getIsbn()) ? taken : rows).add(row);
+        }
+        if (!taken.isEmpty()) {
+            outcome.failed(taken, ALREADY_EXISTS);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            saveInBatch(rows, request);
+            outcome.written(rows);
+        } catch (DataIntegrityViolationException e) {
+            // Another writer took one of the ISBNs after the existence check; isolate it row by row
+            for (T row : rows) {
+                List<T> single = Collections.singletonList(row);
+                try {
+                    saveInBatch(single, request);
+                    outcome.written(single);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    outcome.failed(single, ConstraintViolations.isUniqueViolation(rowFailure)
+                            ? ALREADY_EXISTS
+                            : "Could not be written: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private <T> void saveInBatch(List<T> rows, Function<T, BookRequest> request) {
+        List<Book> books = rows.stream()
+                .map(row -> BookMapper.fromRequest(request.apply(row)))
+                .collect(Collectors.toList());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Flushed through the repository, so a unique-key violation arrives translated and is isolated above
+            bookRepository.saveAllAndFlush(books);
+            entityManager.clear();
+            // Delivered after commit, so a rolled-back chunk never reaches listeners
+            books.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(BookMapper.toResponse(book))));
+        });
+    }
+
+    interface Outcome<T> {
+
+        void written(List<T> rows);
+
+        void failed(List<T> rows, String reason);
+    }
+}
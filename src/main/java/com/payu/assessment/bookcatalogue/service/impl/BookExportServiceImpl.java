@@ -0,0 +1,180 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.payu.assessment.bookcatalogue.dto.ExportFormat;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.service.BookExportService;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+// Streams books in id order straight off a database cursor. Every row is written and detached before the
+// next is read, so memory stays flat however large the catalogue; a consumer that loses the connection
+// resumes with afterId set to the last id it received.
+@Service
+public class BookExportServiceImpl implements BookExportService {
+
+    static final String[] COLUMNS = {"id", "name", "isbn", "publishDate", "price", "bookType", "version", "updatedAt"};
+
+    private static final DateTimeFormatter PUBLISH_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final BookService bookService;
+    private final JsonFactory jsonFactory;
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    @Autowired
+    public BookExportServiceImpl(BookService bookService, ObjectMapper objectMapper) {
+        this.bookService = bookService;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    public long exportBooks(OutputStream out, ExportFormat format, long afterId, long limit) throws IOException {
+        try {
+            switch (format) {
+                case CSV:
+                    return exportCsv(out, afterId, limit);
+                case CBOR:
+                    return exportCbor(out, afterId, limit);
+                default:
+                    return exportNdjson(out, afterId, limit);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long exportNdjson(OutputStream out, long afterId, long limit) throws IOException {
+        long[] written = {0};
+        try (JsonGenerator generator = generator(jsonFactory, out)) {
+            generator.setRootValueSeparator(null);
+            bookService.streamBooks(afterId, limit, book -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField(COLUMNS[0], book.getId());
+                    generator.writeStringField(COLUMNS[1], book.getName());
+                    generator.writeStringField(COLUMNS[2], book.getIsbn());
+                    generator.writeStringField(COLUMNS[3], publishDate(book));
+                    writeNumberField(generator, COLUMNS[4], book.getPrice());
+                    generator.writeStringField(COLUMNS[5], book.getBookType() == null ? null : book.getBookType().name());
+                    writeNumberField(generator, COLUMNS[6], book.getVersion());
+                    generator.writeStringField(COLUMNS[7], book.getUpdatedAt() == null ? null : book.getUpdatedAt().toString());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return written[0];
+    }
+
+    // Positional arrays after one header row: the column names are not repeated in every record
+    private long exportCbor(OutputStream out, long afterId, long limit) throws IOException {
+        long[] written = {0};
+        try (JsonGenerator generator = generator(cborFactory, out)) {
+            generator.writeArray(COLUMNS, 0, COLUMNS.length);
+            bookService.streamBooks(afterId, limit, book -> {
+                try {
+                    generator.writeStartArray();
+                    generator.writeNumber(book.getId());
+                    generator.writeString(book.getName());
+                    generator.writeString(book.getIsbn());
+                    generator.writeString(publishDate(book));
+                    writeNumber(generator, book.getPrice());
+                    generator.writeString(book.getBookType() == null ? null : book.getBookType().name());
+                    writeNumber(generator, book.getVersion());
+                    generator.writeString(book.getUpdatedAt() == null ? null : book.getUpdatedAt().toString());
+                    generator.writeEndArray();
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return written[0];
+    }
+
+    // Same columns as the CSV import, plus id, version and updatedAt, so an export can be re-imported
+    private long exportCsv(OutputStream out, long afterId, long limit) throws IOException {
+        long[] written = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        bookService.streamBooks(afterId, limit, book -> {
+            try {
+                writer.write(String.valueOf(book.getId()));
+                writer.write(',');
+                writer.write(csvField(book.getName()));
+                writer.write(',');
+                writer.write(csvField(book.getIsbn()));
+                writer.write(',');
+                writer.write(csvField(publishDate(book)));
+                writer.write(',');
+                writer.write(book.getPrice() == null ? "" : String.valueOf(book.getPrice()));
+                writer.write(',');
+                writer.write(book.getBookType() == null ? "" : book.getBookType().name());
+                writer.write(',');
+                writer.write(book.getVersion() == null ? "" : String.valueOf(book.getVersion()));
+                writer.write(',');
+                writer.write(book.getUpdatedAt() == null ? "" : book.getUpdatedAt().toString());
+                writer.write('\n');
+                written[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return written[0];
+    }
+
+    // The caller owns the stream and may still have to finish a compressor around it
+    private static JsonGenerator generator(JsonFactory factory, OutputStream out) throws IOException {
+        JsonGenerator generator = factory.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static void writeNumberField(JsonGenerator generator, String name, Number value) throws IOException {
+        generator.writeFieldName(name);
+        writeNumber(generator, value);
+    }
+
+    private static void writeNumber(JsonGenerator generator, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Double) {
+            generator.writeNumber(value.doubleValue());
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    private static String publishDate(Book book) {
+        return book.getPublishDate() == null ? null : book.getPublishDate().format(PUBLISH_DATE_FORMAT);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0
+                && value.trim().length() == value.length()) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,209 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkImportError;
+import com.payu.assessment.bookcatalogue.dto.BulkImportResponse;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.service.BookImportService;
+import com.payu.assessment.bookcatalogue.util.CsvLineParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+    private static final DateTimeFormatter PUBLISH_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String[] CSV_COLUMNS = {"name", "isbn", "publishDate", "price", "bookType"};
+
+    private final BookChunkWriter chunkWriter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @Autowired
+    BookImportServiceImpl(BookChunkWriter chunkWriter,
+                          Validator validator,
+                          ObjectMapper objectMapper,
+                          @Value("${catalogue.import.batch-size:500}") int batchSize,
+                          @Value("${catalogue.import.max-errors:1000}") int maxErrors) {
+        this.chunkWriter = chunkWriter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public BulkImportResponse importBooks(InputStream body, ImportFormat format) throws IOException {
+        ImportReport report = new ImportReport(maxErrors);
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+        Map<String, Integer> csvColumns = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && csvColumns == null) {
+                    csvColumns = readCsvHeader(line);
+                    continue;
+                }
+
+                report.received++;
+                try {
+                    BookRequest request = format == ImportFormat.CSV
+                            ? parseCsvRow(line, csvColumns)
+                            : objectMapper.readValue(line, BookRequest.class);
+                    if (request == null) {
+                        // A literal null line binds to no book at all rather than failing to bind
+                        throw new IllegalArgumentException("Each line must be a JSON object");
+                    }
+                    chunk.add(new ImportRow(lineNumber, request));
+                } catch (JsonProcessingException e) {
+                    report.fail(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    report.fail(lineNumber, null, e.getMessage());
+                }
+
+                if (chunk.size() >= batchSize) {
+                    writeChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report);
+        }
+        return report.toResponse();
+    }
+
+    private Map<String, Integer> readCsvHeader(String line) {
+        List<String> header = CsvLineParser.parse(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column.toLowerCase(Locale.ROOT))) {
+                throw new InvalidRequestException("CSV header is missing column '" + column + "'");
+            }
+        }
+        return columns;
+    }
+
+    private BookRequest parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = CsvLineParser.parse(line);
+        String price = field(fields, columns, "price");
+        String publishDate = field(fields, columns, "publishdate");
+        String bookType = field(fields, columns, "booktype");
+
+        return new BookRequest(
+                field(fields, columns, "name"),
+                field(fields, columns, "isbn"),
+                publishDate == null ? null : LocalDate.parse(publishDate, PUBLISH_DATE_FORMAT),
+                price == null ? null : Double.valueOf(price),
+                bookType == null ? null : BookType.valueOf(bookType.toUpperCase(Locale.ROOT))
+        );
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        if (index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private void writeChunk(List<ImportRow> chunk, ImportReport report) {
+        Map<String, ImportRow> candidates = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            Set<ConstraintViolation<BookRequest>> violations = validator.validate(row.request);
+            if (!violations.isEmpty()) {
+                report.fail(row.line, row.request.getIsbn(), violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (candidates.putIfAbsent(row.request.getIsbn(), row) != null) {
+                report.fail(row.line, row.request.getIsbn(), "Duplicate ISBN within the import");
+            }
+        }
+        chunkWriter.write(candidates.values(), row -> row.request, new BookChunkWriter.Outcome<ImportRow>() {
+            @Override
+            public void written(List<ImportRow> rows) {
+                report.imported += rows.size();
+            }
+
+            @Override
+            public void failed(List<ImportRow> rows, String reason) {
+                rows.forEach(row -> report.fail(row.line, row.request.getIsbn(), reason));
+            }
+        });
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final BookRequest request;
+
+        private ImportRow(long line, BookRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<BulkImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        private ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(long line, String isbn, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new BulkImportError(line, isbn, message));
+            }
+        }
+
+        private BulkImportResponse toResponse() {
+            errors.sort(Comparator.comparingLong(BulkImportError::getLine));
+            return new BulkImportResponse(received, imported, failed, errors, failed > errors.size());
+        }
+    }
+}
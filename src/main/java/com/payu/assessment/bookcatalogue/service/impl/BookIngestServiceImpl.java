@@ -0,0 +1,309 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.payu.assessment.bookcatalogue.dto.BookIngestResponse;
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.IngestStatus;
+import com.payu.assessment.bookcatalogue.exception.IngestQueueFullException;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.model.IngestFailure;
+import com.payu.assessment.bookcatalogue.repository.IngestFailureRepository;
+import com.payu.assessment.bookcatalogue.service.BookIngestService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Write-behind ingest: a request is validated, queued and answered without waiting for a commit. One writer
+// thread drains the queue into batched transactions; whatever piles up while a batch commits goes into the
+// next one, so batches grow with the arrival rate and the commit cost is shared across them.
+@Service
+public class BookIngestServiceImpl implements BookIngestService {
+
+    static final String ALREADY_EXISTS = BookChunkWriter.ALREADY_EXISTS;
+
+    private static final Logger log = LoggerFactory.getLogger(BookIngestServiceImpl.class);
+
+    private final BookChunkWriter chunkWriter;
+    private final IngestFailureRepository ingestFailureRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final Duration offerTimeout;
+    private final Duration failureRetention;
+
+    private final BlockingQueue<Ingest> queue;
+    private final Map<String, Ingest> queued = new ConcurrentHashMap<>();
+    // Outcomes stay in memory for a while; failures are also stored, so they outlive this cache and a restart
+    private final Cache<String, BookIngestResponse> outcomes;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter failureNotPersisted;
+    // Failure records the database refused; the writer thread retries them before each batch
+    private final List<IngestFailure> unsavedFailures = new ArrayList<>();
+
+    private final Thread writer = new Thread(this::drain, "book-ingest-writer");
+    private volatile boolean running = true;
+
+    @Autowired
+    BookIngestServiceImpl(BookChunkWriter chunkWriter,
+                          IngestFailureRepository ingestFailureRepository,
+                          PlatformTransactionManager transactionManager,
+                          Validator validator,
+                          MeterRegistry meterRegistry,
+                          @Value("${catalogue.ingest.queue-capacity:10000}") int queueCapacity,
+                          @Value("${catalogue.ingest.batch-size:500}") int batchSize,
+                          @Value("${catalogue.ingest.offer-timeout:100ms}") Duration offerTimeout,
+                          @Value("${catalogue.ingest.status-ttl:1h}") Duration statusTtl,
+                          @Value("${catalogue.ingest.status-max-size:1000000}") long statusMaxSize,
+                          @Value("${catalogue.ingest.failure-retention:7d}") Duration failureRetention) {
+        this.chunkWriter = chunkWriter;
+        this.ingestFailureRepository = ingestFailureRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.offerTimeout = offerTimeout;
+        this.failureRetention = failureRetention;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(statusMaxSize)
+                .expireAfterWrite(statusTtl)
+                .build();
+
+        Gauge.builder("books.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Books accepted for ingest and not yet written")
+                .register(meterRegistry);
+        this.accepted = ingestCounter(meterRegistry, "accepted");
+        this.rejected = ingestCounter(meterRegistry, "rejected");
+        this.written = ingestCounter(meterRegistry, "written");
+        this.failed = ingestCounter(meterRegistry, "failed");
+        this.failureNotPersisted = ingestCounter(meterRegistry, "failure-not-persisted");
+    }
+
+    private static Counter ingestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("books.ingest")
+                .description("Books submitted for asynchronous ingest, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Runs after the web server has stopped taking requests and before the database is closed,
+    // so everything already answered with 202 is still written
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    @Override
+    public BookIngestResponse submit(BookRequest request) {
+        Set<ConstraintViolation<BookRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (!running) {
+            throw new IngestQueueFullException("Ingest is shutting down, retry on another node");
+        }
+
+        Ingest ingest = new Ingest(UUID.randomUUID().toString(), request);
+        queued.put(ingest.trackingId, ingest);
+        boolean offered;
+        try {
+            offered = queue.offer(ingest, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+        if (!offered) {
+            queued.remove(ingest.trackingId);
+            rejected.increment();
+            throw new IngestQueueFullException("Ingest queue is full, retry shortly");
+        }
+        accepted.increment();
+        return new BookIngestResponse(ingest.trackingId, IngestStatus.QUEUED, request.getIsbn(), null);
+    }
+
+    @Override
+    public BookIngestResponse getStatus(String trackingId) {
+        Ingest ingest = queued.get(trackingId);
+        if (ingest != null) {
+            return new BookIngestResponse(trackingId, IngestStatus.QUEUED, ingest.request.getIsbn(), null);
+        }
+        BookIngestResponse outcome = outcomes.getIfPresent(trackingId);
+        if (outcome != null) {
+            return outcome;
+        }
+        return ingestFailureRepository.findById(trackingId)
+                .map(failure -> new BookIngestResponse(trackingId, IngestStatus.FAILED, failure.getIsbn(),
+                        failure.getReason()))
+                .orElse(null);
+    }
+
+    @Transactional
+    @Scheduled(initialDelayString = "${catalogue.ingest.prune-interval:PT1H}",
+            fixedDelayString = "${catalogue.ingest.prune-interval:PT1H}")
+    public int pruneFailures() {
+        return ingestFailureRepository.deleteByFailedAtBefore(Instant.now().minus(failureRetention));
+    }
+
+    void drain() {
+        List<Ingest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                saveFailures(new ArrayList<>());
+                Ingest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                List<Ingest> unresolved = batch.stream()
+                        .filter(ingest -> outcomes.getIfPresent(ingest.trackingId) == null)
+                        .collect(Collectors.toList());
+                fail(unresolved, "Could not be written: " + e.getMessage());
+            } finally {
+                batch.forEach(ingest -> queued.remove(ingest.trackingId));
+                batch.clear();
+            }
+        }
+        saveFailures(new ArrayList<>());
+        if (!unsavedFailures.isEmpty()) {
+            dropFailures(unsavedFailures.size());
+        }
+    }
+
+    private void write(List<Ingest> batch) {
+        List<Ingest> repeated = new ArrayList<>();
+        Map<String, Ingest> candidates = new LinkedHashMap<>();
+        for (Ingest ingest : batch) {
+            if (candidates.putIfAbsent(ingest.request.getIsbn(), ingest) != null) {
+                repeated.add(ingest);
+            }
+        }
+        fail(repeated, ALREADY_EXISTS);
+        chunkWriter.write(candidates.values(), ingest -> ingest.request, new BookChunkWriter.Outcome<Ingest>() {
+            @Override
+            public void written(List<Ingest> rows) {
+                succeed(rows);
+            }
+
+            @Override
+            public void failed(List<Ingest> rows, String reason) {
+                fail(rows, reason);
+            }
+        });
+    }
+
+    private void succeed(List<Ingest> rows) {
+        for (Ingest row : rows) {
+            outcomes.put(row.trackingId,
+                    new BookIngestResponse(row.trackingId, IngestStatus.WRITTEN, row.request.getIsbn(), null));
+        }
+        written.increment(rows.size());
+    }
+
+    private void fail(List<Ingest> rows, String reason) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<IngestFailure> failures = new ArrayList<>(rows.size());
+        for (Ingest row : rows) {
+            BookRequest request = row.request;
+            outcomes.put(row.trackingId,
+                    new BookIngestResponse(row.trackingId, IngestStatus.FAILED, request.getIsbn(), reason));
+            failures.add(new IngestFailure(row.trackingId, request.getIsbn(), request.getName(),
+                    request.getPublishDate(), request.getPrice(), request.getBookType(), truncate(reason), now));
+        }
+        failed.increment(rows.size());
+        saveFailures(failures);
+    }
+
+    // Stores the given failure records along with any earlier ones the database refused. Until they are
+    // stored the outcomes are still reported from memory, for as long as the status cache keeps them.
+    private void saveFailures(List<IngestFailure> failures) {
+        failures.addAll(0, unsavedFailures);
+        if (failures.isEmpty()) {
+            return;
+        }
+        unsavedFailures.clear();
+        try {
+            transactionTemplate.executeWithoutResult(status -> ingestFailureRepository.saveAll(failures));
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} ingest failure records, retrying with the next batch: {}",
+                    failures.size(), e.getMessage());
+            unsavedFailures.addAll(failures);
+            if (unsavedFailures.size() > queueCapacity) {
+                dropFailures(unsavedFailures.size() - queueCapacity);
+            }
+        }
+    }
+
+    // Gives up on the oldest unsaved failure records; their outcomes are lost once the status cache expires
+    private void dropFailures(int count) {
+        List<IngestFailure> dropped = unsavedFailures.subList(0, count);
+        log.error("Dropping {} ingest failure records that could not be stored, tracking ids {}", count,
+                dropped.stream().map(IngestFailure::getTrackingId).collect(Collectors.toList()));
+        failureNotPersisted.increment(count);
+        dropped.clear();
+    }
+
+    private static String truncate(String reason) {
+        return reason.length() <= 1000 ? reason : reason.substring(0, 1000);
+    }
+
+    private static final class Ingest {
+        private final String trackingId;
+        private final BookRequest request;
+
+        private Ingest(String trackingId, BookRequest request) {
+            this.trackingId = trackingId;
+            this.request = request;
+        }
+    }
+}
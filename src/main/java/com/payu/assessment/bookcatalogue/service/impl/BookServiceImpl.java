@@ -1,70 +1,531 @@
 package com.payu.assessment.bookcatalogue.service.impl;
 
+import com.payu.assessment.bookcatalogue.cache.BookResponseCache;
+import com.payu.assessment.bookcatalogue.dto.BookBatchResponse;
 import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSearchCriteria;
+import com.payu.assessment.bookcatalogue.dto.BulkDeleteRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkUpdateRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkWriteResponse;
+import com.payu.assessment.bookcatalogue.dto.CacheStatsResponse;
+import com.payu.assessment.bookcatalogue.dto.NameMatch;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
 import com.payu.assessment.bookcatalogue.exception.BookAlreadyExistsException;
 import com.payu.assessment.bookcatalogue.exception.BookNotFoundException;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.exception.PreconditionFailedException;
 import com.payu.assessment.bookcatalogue.model.Book;
 import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.repository.BookSpecifications;
 import com.payu.assessment.bookcatalogue.service.BookService;
+import com.payu.assessment.bookcatalogue.store.BookStore;
 import com.payu.assessment.bookcatalogue.util.BookMapper;
+import com.payu.assessment.bookcatalogue.util.ConstraintViolations;
+import com.payu.assessment.bookcatalogue.util.CursorCodec;
+import com.payu.assessment.bookcatalogue.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_ISBNS = 1000;
+    static final int ISBN_QUERY_CHUNK = 500;
+    static final int MAX_SEARCH_OFFSET = 10000;
+    static final int BULK_CHUNK_SIZE = 500;
+    static final int MAX_BULK_ISBNS = 10000;
+    static final Set<String> SORTABLE_FIELDS = new LinkedHashSet<>(
+            Arrays.asList("name", "price", "publishDate", "bookType", "isbn"));
+
     private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final BookResponseCache bookResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    // Present only when an in-memory storage engine is configured; otherwise reads go through JPA
+    private final BookStore bookStore;
+    private final ConcurrentMap<String, CompletableFuture<BookResponse>> isbnLoads = new ConcurrentHashMap<>();
 
     @Autowired
-    public BookServiceImpl(BookRepository bookRepository) {
+    public BookServiceImpl(BookRepository bookRepository, EntityManager entityManager,
+                           BookResponseCache bookResponseCache, ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager, @Nullable BookStore bookStore) {
         this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.bookResponseCache = bookResponseCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookStore = bookStore;
     }
 
     @Override
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    public Slice<Book> getBooksPage(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorCodec.decode(cursor), PageRequest.of(0, size + 1));
+        boolean hasNext = books.size() > size;
+        if (hasNext) {
+            books = books.subList(0, size);
+        }
+        return new SliceImpl<>(books, PageRequest.of(0, size), hasNext);
     }
 
     @Override
-    public Book getBookByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn)
-                .orElseThrow(() -> new BookNotFoundException("Book with ISBN " + isbn + " not found"));
+    public Slice<Book> searchBooks(BookSearchCriteria criteria, int page, int size, String sort) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0 || (long) page * size > MAX_SEARCH_OFFSET) {
+            throw new InvalidRequestException("Page must be between 0 and " + (MAX_SEARCH_OFFSET / size));
+        }
+        return bookRepository.findSlice(toSpecification(criteria), PageRequest.of(page, size, toSort(sort)));
+    }
+
+    private Specification<Book> toSpecification(BookSearchCriteria criteria) {
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice() > criteria.getMaxPrice()) {
+            throw new InvalidRequestException("minPrice must not be greater than maxPrice");
+        }
+        if (criteria.getPublishedFrom() != null && criteria.getPublishedTo() != null
+                && criteria.getPublishedFrom().isAfter(criteria.getPublishedTo())) {
+            throw new InvalidRequestException("publishedFrom must not be after publishedTo");
+        }
+
+        Specification<Book> spec = Specification.where(null);
+        if (criteria.getName() != null && !criteria.getName().trim().isEmpty()) {
+            String name = criteria.getName().trim();
+            spec = spec.and(criteria.getNameMatch() == NameMatch.CONTAINS
+                    ? BookSpecifications.nameContains(name)
+                    : BookSpecifications.nameStartsWith(name));
+        }
+        if (criteria.getBookType() != null) {
+            spec = spec.and(BookSpecifications.hasType(criteria.getBookType()));
+        }
+        if (criteria.getMinPrice() != null) {
+            spec = spec.and(BookSpecifications.priceAtLeast(criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            spec = spec.and(BookSpecifications.priceAtMost(criteria.getMaxPrice()));
+        }
+        if (criteria.getPublishedFrom() != null) {
+            spec = spec.and(BookSpecifications.publishedOnOrAfter(criteria.getPublishedFrom()));
+        }
+        if (criteria.getPublishedTo() != null) {
+            spec = spec.and(BookSpecifications.publishedOnOrBefore(criteria.getPublishedTo()));
+        }
+        return spec;
+    }
+
+    // Accepts "field" or "field,asc|desc"; id is always appended so offsets over equal keys stay stable
+    private Sort toSort(String sort) {
+        if (sort == null || sort.trim().isEmpty()) {
+            return Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new InvalidRequestException("Cannot sort by '" + field + "', allowed: " + SORTABLE_FIELDS);
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new InvalidRequestException("Sort direction must be asc or desc"));
+        }
+        return Sort.by(direction, field).and(Sort.by("id"));
+    }
+
+    @Override
+    @Transactional
+    public void streamAllBooks(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamAllByOrderByIdAsc()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
     }
 
     @Override
     @Transactional
-    public boolean deleteBookByIsbn(String isbn) {
-        if (!bookRepository.existsByIsbn(isbn)) {
-            throw new BookNotFoundException("Book with ISBN " + isbn + " not found");
+    public void streamBooks(long afterId, long limit, Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamByIdGreaterThanOrderByIdAsc(afterId)) {
+            books.limit(limit).forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    @Override
+    public Book getBookByIsbn(String isbn) {
+        return bookRepository.findByIsbn(isbn).orElseThrow(() -> notFound(isbn));
+    }
+
+    @Override
+    public BookResponse getBookResponseByIsbn(String isbn) {
+        // A loaded store holds the whole catalogue, so its miss is as final as the database's
+        if (bookStore != null && bookStore.isReady()) {
+            return bookStore.findByIsbn(isbn).orElseThrow(() -> notFound(isbn));
+        }
+        BookResponse cached = bookResponseCache.get(isbn);
+        if (cached != null) {
+            return cached;
+        }
+        if (bookResponseCache.isMissing(isbn)) {
+            throw notFound(isbn);
+        }
+
+        // Concurrent misses on one ISBN share a single query and its outcome, found or not
+        CompletableFuture<BookResponse> load = new CompletableFuture<>();
+        CompletableFuture<BookResponse> inFlight = isbnLoads.putIfAbsent(isbn, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            long stamp = bookResponseCache.stamp();
+            Optional<Book> book = bookRepository.findByIsbn(isbn);
+            if (!book.isPresent()) {
+                bookResponseCache.putMissing(isbn, stamp);
+                throw notFound(isbn);
+            }
+            BookResponse response = BookMapper.toResponse(book.get());
+            bookResponseCache.put(response, stamp);
+            load.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            isbnLoads.remove(isbn, load);
+        }
+    }
+
+    private static BookResponse await(CompletableFuture<BookResponse> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static BookNotFoundException notFound(String isbn) {
+        return new BookNotFoundException("Book with ISBN " + isbn + " not found");
+    }
+
+    @Override
+    public BookBatchResponse getBookResponsesByIsbns(List<String> isbns) {
+        Set<String> requested = new LinkedHashSet<>(isbns);
+        if (requested.size() > MAX_BATCH_ISBNS) {
+            throw new InvalidRequestException("At most " + MAX_BATCH_ISBNS + " ISBNs can be requested at once");
+        }
+
+        if (bookStore != null && bookStore.isReady()) {
+            List<BookResponse> books = new ArrayList<>(requested.size());
+            List<String> missing = new ArrayList<>();
+            for (String isbn : requested) {
+                Optional<BookResponse> book = bookStore.findByIsbn(isbn);
+                if (book.isPresent()) {
+                    books.add(book.get());
+                } else {
+                    missing.add(isbn);
+                }
+            }
+            return new BookBatchResponse(books, missing);
+        }
+
+        Map<String, BookResponse> found = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String isbn : requested) {
+            BookResponse cached = bookResponseCache.get(isbn);
+            if (cached != null) {
+                found.put(isbn, cached);
+            } else if (!bookResponseCache.isMissing(isbn)) {
+                uncached.add(isbn);
+            }
         }
+        long stamp = bookResponseCache.stamp();
 
-        bookRepository.deleteByIsbn(isbn);
+        // Keep IN lists bounded so the statement and its plan stay cacheable
+        for (int from = 0; from < uncached.size(); from += ISBN_QUERY_CHUNK) {
+            List<String> chunk = uncached.subList(from, Math.min(from + ISBN_QUERY_CHUNK, uncached.size()));
+            for (Book book : bookRepository.findByIsbnIn(chunk)) {
+                BookResponse response = BookMapper.toResponse(book);
+                bookResponseCache.put(response, stamp);
+                found.put(book.getIsbn(), response);
+            }
+        }
+
+        List<BookResponse> books = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String isbn : requested) {
+            BookResponse response = found.get(isbn);
+            if (response != null) {
+                books.add(response);
+            } else {
+                missing.add(isbn);
+            }
+        }
+        for (String isbn : uncached) {
+            if (!found.containsKey(isbn)) {
+                bookResponseCache.putMissing(isbn, stamp);
+            }
+        }
+        return new BookBatchResponse(books, missing);
+    }
+
+    @Override
+    public CacheStatsResponse getIsbnCacheStats() {
+        return bookResponseCache.stats();
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteBookByIsbn(String isbn, String ifMatch) {
+        Book existing = getBookByIsbn(isbn);
+        checkPrecondition(existing, ifMatch);
+
+        // Deleting the loaded entity lets Hibernate guard the statement with its version
+        bookRepository.delete(existing);
+        bookResponseCache.evict(isbn);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(BookMapper.toResponse(existing)));
         return true;
     }
 
 
     @Override
     public Book addBook(BookRequest bookRequest) {
-        if (bookRepository.existsByIsbn(bookRequest.getIsbn())) {
+        // The unique index on isbn is the duplicate check, so an insert is a single statement
+        try {
+            return insert(BookMapper.fromRequest(bookRequest));
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isUniqueViolation(e)) {
+                throw e;
+            }
             throw new BookAlreadyExistsException(
                     String.format("Cannot add book. A book with ISBN '%s' already exists.", bookRequest.getIsbn())
             );
         }
+    }
+
+    @Override
+    public Book updateBookByIsbn(String isbn, BookRequest bookRequest, String ifMatch) {
+        Book existing = getBookByIsbn(isbn);
+        checkPrecondition(existing, ifMatch);
+        return applyUpdate(existing, bookRequest);
+    }
+
+    @Override
+    public Book upsertBookByIsbn(String isbn, BookRequest bookRequest, String ifMatch) {
+        Optional<Book> existing = bookRepository.findByIsbn(isbn);
+        if (existing.isPresent()) {
+            checkPrecondition(existing.get(), ifMatch);
+            return applyUpdate(existing.get(), bookRequest);
+        }
+        if (ifMatch != null) {
+            throw new PreconditionFailedException("Book with ISBN " + isbn + " does not exist");
+        }
 
         Book book = BookMapper.fromRequest(bookRequest);
-        return bookRepository.save(book);
+        book.setIsbn(isbn);
+        try {
+            return insert(book);
+        } catch (DataIntegrityViolationException e) {
+            if (!ConstraintViolations.isUniqueViolation(e)) {
+                throw e;
+            }
+            // A concurrent writer created the row between our lookup and insert
+            return applyUpdate(getBookByIsbn(isbn), bookRequest);
+        }
     }
 
     @Override
-    public Book updateBookByIsbn(String isbn, BookRequest bookRequest) {
-        Book existing = getBookByIsbn(isbn);
+    public BulkWriteResponse updateBooks(BulkUpdateRequest request) {
+        Double price = request.getPrice();
+        Double percent = request.getPriceChangePercent();
+        if (price == null && percent == null && request.getBookType() == null && request.getPublishDate() == null) {
+            throw new InvalidRequestException("Nothing to update; set price, priceChangePercent, bookType or publishDate");
+        }
+        if (price != null && percent != null) {
+            throw new InvalidRequestException("Give either price or priceChangePercent, not both");
+        }
+        if (price != null && price < 0) {
+            throw new InvalidRequestException("Price cannot be negative");
+        }
+        if (percent != null && percent <= -100) {
+            throw new InvalidRequestException("priceChangePercent must be greater than -100");
+        }
+        Double priceFactor = percent == null ? null : 1 + percent / 100;
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        return writeInBatches(request.getIsbns(), request.getFilter(), batch -> {
+            List<Long> ids = batch.stream().map(Book::getId).collect(Collectors.toList());
+            int updated = bookRepository.updateByIds(ids, price, priceFactor, request.getBookType(),
+                    request.getPublishDate(), updatedAt);
+            // The statement bypassed the persistence context; reload the rows to capture their new versions
+            entityManager.clear();
+            Map<Long, Book> current = bookRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Book::getId, Function.identity()));
+            for (Book previous : batch) {
+                // Evicted rather than refreshed, so a mass update does not flood the cache with cold titles
+                bookResponseCache.evict(previous.getIsbn());
+                eventPublisher.publishEvent(BookChangedEvent.updated(BookMapper.toResponse(previous),
+                        BookMapper.toResponse(current.get(previous.getId()))));
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public BulkWriteResponse deleteBooks(BulkDeleteRequest request) {
+        return writeInBatches(request.getIsbns(), request.getFilter(), batch -> {
+            int deleted = bookRepository.deleteByIds(batch.stream().map(Book::getId).collect(Collectors.toList()));
+            for (Book book : batch) {
+                bookResponseCache.evict(book.getIsbn());
+                eventPublisher.publishEvent(BookChangedEvent.deleted(BookMapper.toResponse(book)));
+            }
+            return deleted;
+        });
+    }
+
+    // Each batch is locked, written with one statement and committed on its own, so a large
+    // selection never holds locks on the whole table; batches already committed stay applied
+    private BulkWriteResponse writeInBatches(List<String> isbns, BookSearchCriteria filter,
+                                             Function<List<Book>, Integer> write) {
+        boolean byIsbn = isbns != null && !isbns.isEmpty();
+        if (byIsbn == (filter != null)) {
+            throw new InvalidRequestException("Give either a non-empty isbns list or a filter");
+        }
+
+        long affected = 0;
+        if (byIsbn) {
+            List<String> distinct = new ArrayList<>(new LinkedHashSet<>(isbns));
+            if (distinct.size() > MAX_BULK_ISBNS) {
+                throw new InvalidRequestException("At most " + MAX_BULK_ISBNS + " ISBNs can be written at once");
+            }
+            Set<String> missing = new LinkedHashSet<>(distinct);
+            for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+                List<String> chunk = distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size()));
+                Batch batch = writeBatch(BookSpecifications.isbnIn(chunk), 0, chunk.size(), write);
+                affected += batch.affected;
+                batch.books.forEach(book -> missing.remove(book.getIsbn()));
+            }
+            return new BulkWriteResponse(affected, new ArrayList<>(missing));
+        }
+
+        if (!hasCriteria(filter)) {
+            throw new InvalidRequestException("Filter must set at least one criterion");
+        }
+        Specification<Book> specification = toSpecification(filter);
+        long afterId = 0;
+        Batch batch;
+        do {
+            batch = writeBatch(specification, afterId, BULK_CHUNK_SIZE, write);
+            affected += batch.affected;
+            if (!batch.books.isEmpty()) {
+                afterId = batch.books.get(batch.books.size() - 1).getId();
+            }
+        } while (batch.books.size() == BULK_CHUNK_SIZE);
+        return new BulkWriteResponse(affected, new ArrayList<>());
+    }
+
+    private Batch writeBatch(Specification<Book> specification, long afterId, int limit,
+                             Function<List<Book>, Integer> write) {
+        return transactionTemplate.execute(status -> {
+            List<Book> books = bookRepository.findBatchForUpdate(specification, afterId, limit);
+            return new Batch(books, books.isEmpty() ? 0 : write.apply(books));
+        });
+    }
+
+    private static boolean hasCriteria(BookSearchCriteria criteria) {
+        return (criteria.getName() != null && !criteria.getName().trim().isEmpty())
+                || criteria.getBookType() != null
+                || criteria.getMinPrice() != null
+                || criteria.getMaxPrice() != null
+                || criteria.getPublishedFrom() != null
+                || criteria.getPublishedTo() != null;
+    }
+
+    private void checkPrecondition(Book book, String ifMatch) {
+        if (!ETags.matches(ifMatch, book.getId(), book.getVersion())) {
+            throw new PreconditionFailedException("Book with ISBN " + book.getIsbn() + " has been modified");
+        }
+    }
+
+    // Each write and its change event commit together, so the change log never disagrees with the table
+    private Book insert(Book book) {
+        Book saved = transactionTemplate.execute(status -> {
+            Book inserted = bookRepository.saveAndFlush(book);
+            eventPublisher.publishEvent(BookChangedEvent.created(BookMapper.toResponse(inserted)));
+            return inserted;
+        });
+        bookResponseCache.put(BookMapper.toResponse(saved));
+        return saved;
+    }
+
+    private Book applyUpdate(Book existing, BookRequest bookRequest) {
+        BookResponse previous = BookMapper.toResponse(existing);
         boolean updated = BookMapper.updateFromRequest(existing, bookRequest);
-        if (updated) {
-            return bookRepository.save(existing);
+        if (!updated) {
+            return existing;
+        }
+        Book saved = transactionTemplate.execute(status -> {
+            // Flushing bumps the version before the event captures it, and through the repository a version
+            // conflict found by the flush arrives as OptimisticLockingFailureException like one found by the merge
+            Book merged = bookRepository.saveAndFlush(existing);
+            eventPublisher.publishEvent(BookChangedEvent.updated(previous, BookMapper.toResponse(merged)));
+            return merged;
+        });
+        bookResponseCache.put(BookMapper.toResponse(saved));
+        return saved;
+    }
+
+    private static class Batch {
+        private final List<Book> books;
+        private final int affected;
+
+        private Batch(List<Book> books, int affected) {
+            this.books = books;
+            this.affected = affected;
         }
-        return existing;
     }
 }
@@ -0,0 +1,273 @@
+package com.payu.assessment.bookcatalogue.stats;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookStatsResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Catalogue-wide counters kept up to date from committed changes, so a dashboard read costs a copy of a
+// few dozen numbers instead of a table scan. Incremental upkeep can drift (writes that bypass the service,
+// changes replicated from other nodes without their old values), so the counters are periodically
+// recomputed from the database.
+@Component
+public class BookStatistics implements SmartInitializingSingleton {
+
+    private final BookRepository bookRepository;
+    private final ChangeSequenceRepository changeSequenceRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final Duration reconcileInterval;
+
+    private final Object reconcileLock = new Object();
+    private Totals totals = new Totals();
+    // Changes delivered while a reconciliation reads the database; those committed after its snapshot are
+    // replayed onto what it read
+    private List<Change> journal;
+    private Instant reconciledAt;
+    private boolean stale;
+    // Min and max cannot be undone in O(1); after removing an extreme they are re-read through the price index
+    private Double minPrice;
+    private Double maxPrice;
+    private boolean priceRangeStale = true;
+    private long generation;
+
+    @Autowired
+    public BookStatistics(BookRepository bookRepository,
+                          ChangeSequenceRepository changeSequenceRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${catalogue.stats.reconcile-interval:PT5M}") Duration reconcileInterval) {
+        this.bookRepository = bookRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        // One snapshot for every aggregate and the change log position, so they all describe the same commit
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    // The first count is a full scan, so it runs beside startup like the name index build
+    @Override
+    public void afterSingletonsInstantiated() {
+        Thread loader = new Thread(this::reconcile, "book-stats-reconcile");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookChanged(BookChangedEvent event) {
+        generation++;
+        if (event.isReplicated() && event.getType() != BookChangedEvent.Type.CREATED) {
+            // Replicated updates and deletes only identify the old row, so its contribution is unknown
+            stale = true;
+            return;
+        }
+        if (event.getPrevious() != null) {
+            apply(new Change(event.getPrevious(), -1, event.getSeq()));
+        }
+        if (event.getCurrent() != null) {
+            apply(new Change(event.getCurrent(), 1, event.getSeq()));
+        }
+    }
+
+    // Picked up by the next scheduled check, like a replicated update whose old values are unknown
+    @EventListener
+    public synchronized void onResync(BookResyncEvent event) {
+        stale = true;
+    }
+
+    public BookStatsResponse getStats() {
+        Totals snapshot;
+        Double min;
+        Double max;
+        Instant asOf;
+        long readGeneration;
+        synchronized (this) {
+            snapshot = totals.copy();
+            min = minPrice;
+            max = maxPrice;
+            asOf = reconciledAt;
+            readGeneration = priceRangeStale ? generation : -1;
+        }
+        if (readGeneration >= 0) {
+            Object[] range = bookRepository.findPriceRange().get(0);
+            min = (Double) range[0];
+            max = (Double) range[1];
+            synchronized (this) {
+                if (generation == readGeneration) {
+                    minPrice = min;
+                    maxPrice = max;
+                    priceRangeStale = false;
+                }
+            }
+        }
+
+        Map<BookType, Long> byType = new EnumMap<>(BookType.class);
+        for (BookType type : BookType.values()) {
+            byType.put(type, snapshot.byType[type.ordinal()]);
+        }
+        Double average = snapshot.priced == 0 ? null : Math.round((double) snapshot.priceCents / snapshot.priced) / 100.0;
+        return new BookStatsResponse(snapshot.books, byType, min, max, average, snapshot.byYear, asOf);
+    }
+
+    @Scheduled(initialDelayString = "${catalogue.stats.check-interval:PT5S}",
+            fixedDelayString = "${catalogue.stats.check-interval:PT5S}")
+    public void reconcileIfDue() {
+        boolean due;
+        synchronized (this) {
+            due = reconciledAt != null
+                    && (stale || reconciledAt.plus(reconcileInterval).isBefore(Instant.now()));
+        }
+        if (due) {
+            reconcile();
+        }
+    }
+
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+                stale = false;
+            }
+            Totals fresh = new Totals();
+            try {
+                snapshotTransaction.executeWithoutResult(status -> load(fresh));
+            } finally {
+                synchronized (this) {
+                    if (fresh.loaded) {
+                        totals = fresh;
+                        minPrice = fresh.minPrice;
+                        maxPrice = fresh.maxPrice;
+                        priceRangeStale = false;
+                        generation++;
+                        // Changes numbered at or below the snapshot's position are already in what it read;
+                        // an unnumbered one cannot be placed, so it is counted
+                        for (Change change : journal) {
+                            if (change.seq == 0 || change.seq > fresh.seq) {
+                                fresh.apply(change.book, change.sign);
+                                applyToPriceRange(change);
+                            }
+                        }
+                        reconciledAt = Instant.now();
+                    }
+                    journal = null;
+                }
+            }
+        }
+    }
+
+    private void apply(Change change) {
+        totals.apply(change.book, change.sign);
+        if (journal != null) {
+            journal.add(change);
+        }
+        applyToPriceRange(change);
+    }
+
+    private void applyToPriceRange(Change change) {
+        Double price = change.book.getPrice();
+        if (price == null || priceRangeStale) {
+            return;
+        }
+        if (change.sign > 0) {
+            minPrice = minPrice == null ? price : Math.min(minPrice, price);
+            maxPrice = maxPrice == null ? price : Math.max(maxPrice, price);
+        } else if (minPrice == null || price <= minPrice || price >= maxPrice) {
+            priceRangeStale = true;
+        }
+    }
+
+    private void load(Totals fresh) {
+        fresh.seq = changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES)
+                .map(ChangeSequence::getLastSeq)
+                .orElse(0L);
+        for (Object[] row : bookRepository.countByBookType()) {
+            long count = (Long) row[1];
+            fresh.books += count;
+            if (row[0] != null) {
+                fresh.byType[((BookType) row[0]).ordinal()] += count;
+            }
+        }
+        for (Object[] row : bookRepository.countByPublishYear()) {
+            fresh.byYear.put(((Number) row[0]).intValue(), (Long) row[1]);
+        }
+        Object[] prices = bookRepository.sumPrices().get(0);
+        fresh.priced = (Long) prices[0];
+        fresh.priceCents = prices[1] == null ? 0 : Math.round((Double) prices[1] * 100);
+        Object[] range = bookRepository.findPriceRange().get(0);
+        fresh.minPrice = (Double) range[0];
+        fresh.maxPrice = (Double) range[1];
+        fresh.loaded = true;
+    }
+
+    private static final class Totals {
+        private final long[] byType = new long[BookType.values().length];
+        private final TreeMap<Integer, Long> byYear = new TreeMap<>();
+        private long books;
+        private long priced;
+        // Prices are in cents, so adding and removing them never accumulates rounding error
+        private long priceCents;
+        // Only set on a reconciliation snapshot, with the change log position it was read at
+        private Double minPrice;
+        private Double maxPrice;
+        private long seq;
+        private boolean loaded;
+
+        private void apply(BookResponse book, int sign) {
+            books += sign;
+            if (book.getBookType() != null) {
+                byType[book.getBookType().ordinal()] += sign;
+            }
+            if (book.getPublishDate() != null) {
+                byYear.merge(book.getPublishDate().getYear(), (long) sign, Long::sum);
+                byYear.remove(book.getPublishDate().getYear(), 0L);
+            }
+            if (book.getPrice() != null) {
+                priced += sign;
+                priceCents += sign * Math.round(book.getPrice() * 100);
+            }
+        }
+
+        private Totals copy() {
+            Totals copy = new Totals();
+            System.arraycopy(byType, 0, copy.byType, 0, byType.length);
+            copy.byYear.putAll(byYear);
+            copy.books = books;
+            copy.priced = priced;
+            copy.priceCents = priceCents;
+            return copy;
+        }
+    }
+
+    private static final class Change {
+        private final BookResponse book;
+        private final int sign;
+        private final long seq;
+
+        private Change(BookResponse book, int sign, long seq) {
+            this.book = book;
+            this.sign = sign;
+            this.seq = seq;
+        }
+    }
+}
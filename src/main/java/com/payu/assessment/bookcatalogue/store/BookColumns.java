@@ -0,0 +1,306 @@
+package com.payu.assessment.bookcatalogue.store;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.model.BookType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// The catalogue as one fixed-width, off-heap column per field plus a heap of UTF-8 strings, so a book costs
+// a few dozen bytes and no objects. Row r of a column of width w lives at byte r * w. The ISBN index is an
+// open-addressing table of row numbers into the same buffers. Not thread-safe; ColumnarBookStore guards it.
+final class BookColumns {
+
+    static final BookType[] TYPES = BookType.values();
+
+    static final long NO_LONG = Long.MIN_VALUE;
+    static final int NO_DAY = Integer.MIN_VALUE;
+    static final byte NO_TYPE = -1;
+    // Deleted rows keep their slot in the columns until the next full load
+    static final long DELETED = 0L;
+
+    private static final int EMPTY_SLOT = 0;
+    private static final int TOMBSTONE_SLOT = -1;
+
+    int capacity;
+    int rows;
+    int live;
+    int stringsUsed;
+    int slotsUsed;
+
+    ByteBuffer ids;
+    ByteBuffer versions;
+    ByteBuffer updatedAt;
+    ByteBuffer prices;
+    ByteBuffer publishDays;
+    ByteBuffer types;
+    ByteBuffer nameRefs;
+    ByteBuffer isbnRefs;
+    ByteBuffer strings;
+    ByteBuffer slots;
+
+    // Wraps existing buffers, such as the regions of a mapped snapshot; the columns are full at rows
+    BookColumns(int rows, int live, int stringsUsed, ByteBuffer ids, ByteBuffer versions, ByteBuffer updatedAt,
+                ByteBuffer prices, ByteBuffer publishDays, ByteBuffer types, ByteBuffer nameRefs, ByteBuffer isbnRefs,
+                ByteBuffer strings, ByteBuffer slots) {
+        this.capacity = rows;
+        this.rows = rows;
+        this.live = live;
+        this.stringsUsed = stringsUsed;
+        this.slotsUsed = rows;
+        this.ids = ids;
+        this.versions = versions;
+        this.updatedAt = updatedAt;
+        this.prices = prices;
+        this.publishDays = publishDays;
+        this.types = types;
+        this.nameRefs = nameRefs;
+        this.isbnRefs = isbnRefs;
+        this.strings = strings;
+        this.slots = slots;
+    }
+
+    BookColumns(int capacity, int stringCapacity) {
+        this.capacity = capacity;
+        ids = allocate(capacity * 8L);
+        versions = allocate(capacity * 8L);
+        updatedAt = allocate(capacity * 8L);
+        prices = allocate(capacity * 8L);
+        publishDays = allocate(capacity * 4L);
+        types = allocate(capacity);
+        nameRefs = allocate(capacity * 4L);
+        isbnRefs = allocate(capacity * 4L);
+        strings = allocate(stringCapacity);
+        slots = allocate(slotCount(capacity) * 4L);
+    }
+
+    long bytesUsed() {
+        return (long) ids.capacity() + versions.capacity() + updatedAt.capacity() + prices.capacity()
+                + publishDays.capacity() + types.capacity() + nameRefs.capacity() + isbnRefs.capacity()
+                + strings.capacity() + slots.capacity();
+    }
+
+    // Gives up after one pass over the slots, which only a damaged mapped snapshot could need
+    int find(byte[] isbn) {
+        int mask = slots.capacity() / 4 - 1;
+        int slot = hash(isbn) & mask;
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            int entry = slots.getInt(slot * 4);
+            if (entry == EMPTY_SLOT) {
+                return -1;
+            }
+            if (entry != TOMBSTONE_SLOT && stringEquals(isbnRefs.getInt((entry - 1) * 4), isbn)) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    BookResponse read(int row) {
+        long version = versions.getLong(row * 8);
+        long updated = updatedAt.getLong(row * 8);
+        double price = prices.getDouble(row * 8);
+        int day = publishDays.getInt(row * 4);
+        byte type = types.get(row);
+        return new BookResponse(
+                string(nameRefs.getInt(row * 4)),
+                string(isbnRefs.getInt(row * 4)),
+                day == NO_DAY ? null : LocalDate.ofEpochDay(day),
+                Double.isNaN(price) ? null : price,
+                type == NO_TYPE ? null : TYPES[type],
+                ids.getLong(row * 8),
+                version == NO_LONG ? null : version,
+                updated == NO_LONG ? null : Instant.ofEpochMilli(updated));
+    }
+
+    long version(int row) {
+        return versions.getLong(row * 8);
+    }
+
+    long id(int row) {
+        return ids.getLong(row * 8);
+    }
+
+    // Appends, first copying into larger columns when these are full; returns the columns holding the row
+    BookColumns appendGrowing(BookResponse book) {
+        if (append(book)) {
+            return this;
+        }
+        BookColumns grown = growFor(book);
+        grown.append(book);
+        return grown;
+    }
+
+    // Room for one more book of this size: the same capacity if compacting frees enough rows, else double
+    BookColumns growFor(BookResponse book) {
+        int needed = 4 + utf8(book.getName()).length + utf8(book.getIsbn()).length;
+        return grow(live + 1 < capacity / 2 ? capacity : capacity * 2, strings.capacity() + needed);
+    }
+
+    // Returns false when the columns or the string heap are full and must be grown first
+    boolean append(BookResponse book) {
+        byte[] name = utf8(book.getName());
+        byte[] isbn = utf8(book.getIsbn());
+        if (rows == capacity || !hasStringRoom(name.length + isbn.length) || (slotsUsed + 1) * 2 > slots.capacity() / 4) {
+            return false;
+        }
+        int row = rows++;
+        live++;
+        nameRefs.putInt(row * 4, putString(name));
+        isbnRefs.putInt(row * 4, putString(isbn));
+        writeFields(row, book);
+        insertSlot(isbn, row);
+        return true;
+    }
+
+    // Overwrites a row in place under its own ISBN, which never changes. An old name's bytes stay as garbage.
+    boolean overwrite(int row, BookResponse book) {
+        byte[] name = utf8(book.getName());
+        boolean nameChanged = !stringEquals(nameRefs.getInt(row * 4), name);
+        if (nameChanged && !hasStringRoom(name.length)) {
+            return false;
+        }
+        if (nameChanged) {
+            nameRefs.putInt(row * 4, putString(name));
+        }
+        writeFields(row, book);
+        return true;
+    }
+
+    void delete(int row) {
+        removeSlot(row);
+        ids.putLong(row * 8, DELETED);
+        live--;
+    }
+
+    // Copies every live row into columns sized for at least minCapacity rows, dropping deleted rows and
+    // dead string bytes on the way
+    BookColumns grow(int minCapacity, int minStringCapacity) {
+        int newCapacity = Math.max(minCapacity, Math.max(16, live * 2));
+        long wantedStrings = Math.max((long) minStringCapacity, Math.max(1024L, (long) liveStringBytes() * 2));
+        BookColumns grown = new BookColumns(newCapacity, (int) Math.min(Integer.MAX_VALUE - 8, wantedStrings));
+        for (int row = 0; row < rows; row++) {
+            if (ids.getLong(row * 8) != DELETED) {
+                grown.append(read(row));
+            }
+        }
+        return grown;
+    }
+
+    private void writeFields(int row, BookResponse book) {
+        ids.putLong(row * 8, book.getId());
+        versions.putLong(row * 8, book.getVersion() == null ? NO_LONG : book.getVersion());
+        updatedAt.putLong(row * 8, book.getUpdatedAt() == null ? NO_LONG : book.getUpdatedAt().toEpochMilli());
+        prices.putDouble(row * 8, book.getPrice() == null ? Double.NaN : book.getPrice());
+        publishDays.putInt(row * 4, book.getPublishDate() == null ? NO_DAY : (int) book.getPublishDate().toEpochDay());
+        types.put(row, book.getBookType() == null ? NO_TYPE : (byte) book.getBookType().ordinal());
+    }
+
+    private void insertSlot(byte[] isbn, int row) {
+        int mask = slots.capacity() / 4 - 1;
+        int slot = hash(isbn) & mask;
+        while (true) {
+            int entry = slots.getInt(slot * 4);
+            if (entry == EMPTY_SLOT || entry == TOMBSTONE_SLOT) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (slots.getInt(slot * 4) == EMPTY_SLOT) {
+            slotsUsed++;
+        }
+        slots.putInt(slot * 4, row + 1);
+    }
+
+    private void removeSlot(int row) {
+        byte[] isbn = stringBytes(isbnRefs.getInt(row * 4));
+        int mask = slots.capacity() / 4 - 1;
+        for (int slot = hash(isbn) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots.getInt(slot * 4);
+            if (entry == EMPTY_SLOT) {
+                return;
+            }
+            if (entry == row + 1) {
+                slots.putInt(slot * 4, TOMBSTONE_SLOT);
+                return;
+            }
+        }
+    }
+
+    // Strings are stored as a two-byte length followed by the UTF-8 bytes
+    private int putString(byte[] bytes) {
+        int offset = stringsUsed;
+        strings.putShort(offset, (short) bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            strings.put(offset + 2 + i, bytes[i]);
+        }
+        stringsUsed += 2 + bytes.length;
+        return offset;
+    }
+
+    private boolean hasStringRoom(int bytes) {
+        return (long) stringsUsed + bytes + 4 <= strings.capacity();
+    }
+
+    private String string(int offset) {
+        return new String(stringBytes(offset), StandardCharsets.UTF_8);
+    }
+
+    private byte[] stringBytes(int offset) {
+        byte[] bytes = new byte[strings.getShort(offset) & 0xFFFF];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = strings.get(offset + 2 + i);
+        }
+        return bytes;
+    }
+
+    private boolean stringEquals(int offset, byte[] bytes) {
+        if ((strings.getShort(offset) & 0xFFFF) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (strings.get(offset + 2 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int liveStringBytes() {
+        int bytes = 0;
+        for (int row = 0; row < rows; row++) {
+            if (ids.getLong(row * 8) != DELETED) {
+                bytes += 4 + (strings.getShort(nameRefs.getInt(row * 4)) & 0xFFFF)
+                        + (strings.getShort(isbnRefs.getInt(row * 4)) & 0xFFFF);
+            }
+        }
+        return bytes;
+    }
+
+    static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Power of two with at most half the slots in use, so probe runs stay short
+    static int slotCount(int capacity) {
+        return Integer.highestOneBit(Math.max(8, capacity) * 4 - 1);
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ b) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Column of " + bytes + " bytes exceeds the 2 GB buffer limit");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,148 @@
+package com.payu.assessment.bookcatalogue.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+// BookColumns on disk: a fixed header followed by each column region exactly as it sits in memory, so
+// loading a snapshot is a read-only mmap per region and a lookup touches only the pages it needs.
+//
+//   magic (8) | format version (4) | rows (4) | live rows (4) | string bytes (4) | slots (4) | unused (4)
+//   | change log seq (8) | written at, epoch millis (8)
+//   | ids | versions | updatedAt | prices (8 per row) | publishDays | nameRefs | isbnRefs (4 per row)
+//   | types (1 per row) | slots (4 per slot) | strings
+//
+// All numbers are little-endian. A reader rejects any other magic or format version.
+final class BookSnapshotFile {
+
+    static final long MAGIC = 0x31504E534B4F4F42L; // "BOOKSNP1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 48;
+
+    private BookSnapshotFile() {
+    }
+
+    static void write(Path file, BookColumns columns, long changeSeq) throws IOException {
+        int slotCount = columns.slots.capacity() / 4;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(columns.rows)
+                .putInt(columns.live)
+                .putInt(columns.stringsUsed)
+                .putInt(slotCount)
+                .putInt(0)
+                .putLong(changeSeq)
+                .putLong(Instant.now().toEpochMilli());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            int rows = columns.rows;
+            writeFully(channel, head(columns.ids, rows * 8));
+            writeFully(channel, head(columns.versions, rows * 8));
+            writeFully(channel, head(columns.updatedAt, rows * 8));
+            writeFully(channel, head(columns.prices, rows * 8));
+            writeFully(channel, head(columns.publishDays, rows * 4));
+            writeFully(channel, head(columns.nameRefs, rows * 4));
+            writeFully(channel, head(columns.isbnRefs, rows * 4));
+            writeFully(channel, head(columns.types, rows));
+            writeFully(channel, head(columns.slots, slotCount * 4));
+            writeFully(channel, head(columns.strings, columns.stringsUsed));
+            channel.force(true);
+        }
+    }
+
+    // The mapping outlives the channel, and the file can be replaced underneath it: the old inode stays
+    // readable until the mapping is collected
+    static Snapshot map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getLong() != MAGIC) {
+                throw new IOException(file + " is not a catalogue snapshot");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException(file + " has snapshot format " + version + ", expected " + FORMAT_VERSION);
+            }
+            int rows = header.getInt();
+            int live = header.getInt();
+            int stringsUsed = header.getInt();
+            int slotCount = header.getInt();
+            header.getInt();
+            long changeSeq = header.getLong();
+
+            // A lookup probes until it meets an empty slot, so a table with no room left for one is refused
+            long expected = HEADER_BYTES + rows * 45L + slotCount * 4L + stringsUsed;
+            if (rows < 0 || live < 0 || live > rows || stringsUsed < 0 || Integer.bitCount(slotCount) != 1
+                    || rows >= slotCount || channel.size() != expected) {
+                throw new IOException(file + " is truncated or corrupt");
+            }
+
+            Regions regions = new Regions(channel, HEADER_BYTES);
+            ByteBuffer ids = regions.next(rows * 8L);
+            ByteBuffer versions = regions.next(rows * 8L);
+            ByteBuffer updatedAt = regions.next(rows * 8L);
+            ByteBuffer prices = regions.next(rows * 8L);
+            ByteBuffer publishDays = regions.next(rows * 4L);
+            ByteBuffer nameRefs = regions.next(rows * 4L);
+            ByteBuffer isbnRefs = regions.next(rows * 4L);
+            ByteBuffer types = regions.next(rows);
+            ByteBuffer slots = regions.next(slotCount * 4L);
+            ByteBuffer strings = regions.next(stringsUsed);
+            BookColumns columns = new BookColumns(rows, live, stringsUsed, ids, versions, updatedAt, prices,
+                    publishDays, types, nameRefs, isbnRefs, strings, slots);
+            return new Snapshot(columns, changeSeq);
+        }
+    }
+
+    private static ByteBuffer head(ByteBuffer buffer, int bytes) {
+        ByteBuffer view = buffer.duplicate();
+        view.clear();
+        view.limit(bytes);
+        return view;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static final class Snapshot {
+        final BookColumns columns;
+        final long changeSeq;
+
+        private Snapshot(BookColumns columns, long changeSeq) {
+            this.columns = columns;
+            this.changeSeq = changeSeq;
+        }
+    }
+
+    // Each region gets its own mapping, which keeps every column under the 2 GB limit of one buffer
+    private static final class Regions {
+        private final FileChannel channel;
+        private long position;
+
+        private Regions(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        private ByteBuffer next(long bytes) throws IOException {
+            ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            position += bytes;
+            return region;
+        }
+    }
+}
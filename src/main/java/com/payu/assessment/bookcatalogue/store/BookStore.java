@@ -0,0 +1,19 @@
+package com.payu.assessment.bookcatalogue.store;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+
+import java.util.Optional;
+
+// An in-memory copy of the whole catalogue that ISBN reads can be served from instead of JPA.
+// The database stays the system of record; a store follows committed changes.
+public interface BookStore {
+
+    // False while the store is still loading; until then reads go to the database
+    boolean isReady();
+
+    Optional<BookResponse> findByIsbn(String isbn);
+
+    long size();
+
+    long bytesUsed();
+}
@@ -0,0 +1,552 @@
+package com.payu.assessment.bookcatalogue.store;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookChange;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookChangeRepository;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import com.payu.assessment.bookcatalogue.util.BookMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+// Serves ISBN lookups from BookColumns. Reads take no lock: they read optimistically and retry under
+// the read lock only if a change was applied meanwhile. Changes arrive after commit, like the caches.
+//
+// With a snapshot file configured, startup maps the last snapshot read-only and serves from it at once,
+// layered under the (initially empty) live columns: a lookup tries the live columns, then the snapshot
+// unless its row has been deleted or renamed since. Meanwhile the database catches up behind it.
+@Component
+@ConditionalOnProperty(name = "catalogue.store.engine", havingValue = "columnar")
+public class ColumnarBookStore implements BookStore, MeterBinder, SmartInitializingSingleton {
+
+    static final int LOAD_BATCH = 1000;
+
+    static final String INSERT_BOOK = "insert into books (id, name, isbn, publish_date, price, book_type, version, "
+            + "updated_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final BookRepository bookRepository;
+    private final BookChangeRepository bookChangeRepository;
+    private final ChangeSequenceRepository changeSequenceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache secondLevelCache;
+    private final int initialCapacity;
+    private final Path snapshotFile;
+    private final boolean snapshotOnShutdown;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile BookColumns columns;
+    // The mapped snapshot, never written to; null when there is none or the live columns have replaced it
+    private volatile BookColumns base;
+    // ISBNs whose snapshot row was deleted since the snapshot was written
+    private final Set<String> shadowed = ConcurrentHashMap.newKeySet();
+    // A full load is refilling the live columns, so the snapshot must not stand in for any row
+    private boolean reloading;
+    private volatile boolean ready;
+    // Until the database has caught up with the snapshot a new snapshot could miss rows, so none is written
+    private volatile boolean catchingUp;
+    // Ids changed while the startup load runs: their event carried a state at least as new as the row
+    // the load reads, so the loaded row is skipped rather than resurrecting or duplicating the book
+    private Set<Long> changedDuringLoad;
+    // Held by whichever thread is loading, so a resync waits for the startup load and vice versa
+    private final Object loadLock = new Object();
+
+    @Autowired
+    public ColumnarBookStore(BookRepository bookRepository,
+                             BookChangeRepository bookChangeRepository,
+                             ChangeSequenceRepository changeSequenceRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${catalogue.store.initial-capacity:100000}") int initialCapacity,
+                             @Value("${catalogue.store.snapshot.path:}") String snapshotPath,
+                             @Value("${catalogue.store.snapshot.on-shutdown:true}") boolean snapshotOnShutdown) {
+        this.bookRepository = bookRepository;
+        this.bookChangeRepository = bookChangeRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.initialCapacity = initialCapacity;
+        this.snapshotFile = snapshotPath == null || snapshotPath.trim().isEmpty() ? null : Paths.get(snapshotPath.trim());
+        this.snapshotOnShutdown = snapshotOnShutdown;
+        this.columns = emptyColumns();
+    }
+
+    // Copying the catalogue is O(books), so it runs beside startup; reads use JPA until it finishes.
+    // Mapping a snapshot is O(1), so with one the store is ready before the web server starts.
+    @Override
+    public void afterSingletonsInstantiated() {
+        long snapshotSeq = mapSnapshot();
+        catchingUp = true;
+        Thread loader = new Thread(() -> {
+            synchronized (loadLock) {
+                try {
+                    if (snapshotSeq < 0) {
+                        load();
+                    } else {
+                        catchUp(snapshotSeq);
+                    }
+                } finally {
+                    catchingUp = false;
+                }
+            }
+        }, "book-store-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Missed changes may have left any row stale, so the columns are refilled from the table. Reads go to
+    // the database until the reload completes, as during the startup load.
+    @EventListener
+    public void onResync(BookResyncEvent event) {
+        Thread loader = new Thread(() -> {
+            synchronized (loadLock) {
+                catchingUp = true;
+                try {
+                    long stamp = lock.writeLock();
+                    try {
+                        ready = false;
+                        columns = emptyColumns();
+                        base = null;
+                        shadowed.clear();
+                    } finally {
+                        lock.unlockWrite(stamp);
+                    }
+                    load();
+                } finally {
+                    catchingUp = false;
+                }
+            }
+        }, "book-store-resync");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Room for 64 bytes of name and ISBN per book, clamped like growth so a large capacity cannot overflow
+    private BookColumns emptyColumns() {
+        return new BookColumns(initialCapacity, (int) Math.min(Integer.MAX_VALUE - 8, initialCapacity * 64L));
+    }
+
+    // Returns the change log position of the mapped snapshot, or -1 when there is none to serve from
+    long mapSnapshot() {
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return -1;
+        }
+        try {
+            BookSnapshotFile.Snapshot snapshot = BookSnapshotFile.map(snapshotFile);
+            base = snapshot.columns;
+            ready = true;
+            return snapshot.changeSeq;
+        } catch (IOException e) {
+            // An unreadable snapshot only costs the warm start; the table is loaded as without one
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (snapshotOnShutdown) {
+            writeSnapshot();
+        }
+    }
+
+    void load() {
+        long stamp = lock.writeLock();
+        try {
+            changedDuringLoad = new HashSet<>();
+            reloading = base != null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        try {
+            long lastId = 0;
+            List<Book> page;
+            do {
+                page = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, LOAD_BATCH));
+                stamp = lock.writeLock();
+                try {
+                    for (Book book : page) {
+                        if (!changedDuringLoad.contains(book.getId())) {
+                            upsert(BookMapper.toResponse(book));
+                        }
+                    }
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == LOAD_BATCH);
+            stamp = lock.writeLock();
+            try {
+                // The live columns now hold the whole table, so the snapshot has nothing left to add
+                base = null;
+                shadowed.clear();
+                reloading = false;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            ready = true;
+        } finally {
+            stamp = lock.writeLock();
+            try {
+                changedDuringLoad = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    // Brings the database and the mapped snapshot in line. A fresh, empty database (the in-memory default
+    // after a restart) is filled from the snapshot. Otherwise the changes logged since the snapshot are
+    // replayed onto it, or, when the log no longer reaches back that far, the table is reloaded while the
+    // snapshot keeps serving.
+    void catchUp(long snapshotSeq) {
+        long headSeq = headSeq();
+        if (headSeq == 0 && bookRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1)).isEmpty()) {
+            restore();
+        } else if (headSeq < snapshotSeq || !replay(snapshotSeq, headSeq)) {
+            load();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            if (changedDuringLoad != null) {
+                BookResponse book = event.getCurrent() == null ? event.getPrevious() : event.getCurrent();
+                changedDuringLoad.add(book.getId());
+            }
+            apply(event);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Writes the whole table to the snapshot file: to a temporary file first, then moved over the old one,
+    // so a crash mid-write leaves the previous snapshot intact. The change log position is read before the
+    // table, so replaying from it after a restart can only repeat changes, never miss one.
+    @Scheduled(initialDelayString = "${catalogue.store.snapshot.interval:PT15M}",
+            fixedDelayString = "${catalogue.store.snapshot.interval:PT15M}")
+    public void writeSnapshot() {
+        if (snapshotFile == null || catchingUp) {
+            return;
+        }
+        long seq = headSeq();
+        int capacity = (int) Math.max(initialCapacity, Math.min(Integer.MAX_VALUE / 8, size() + size() / 8));
+        BookColumns snapshot = new BookColumns(capacity, (int) Math.min(Integer.MAX_VALUE - 8, capacity * 64L));
+        long lastId = 0;
+        List<Book> page;
+        do {
+            page = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, LOAD_BATCH));
+            for (Book book : page) {
+                snapshot = snapshot.appendGrowing(BookMapper.toResponse(book));
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == LOAD_BATCH);
+
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = directory.resolve(snapshotFile.getFileName() + ".tmp");
+            BookSnapshotFile.write(temporary, snapshot, seq);
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write catalogue snapshot " + snapshotFile, e);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Optional<BookResponse> findByIsbn(String isbn) {
+        byte[] key = BookColumns.utf8(isbn);
+        long stamp = lock.tryOptimisticRead();
+        BookResponse book = null;
+        if (stamp != 0) {
+            try {
+                book = read(isbn, key);
+            } catch (RuntimeException e) {
+                // A change moved data under the read; validation below fails and it is retried under the lock
+            }
+        }
+        if (stamp == 0 || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                book = read(isbn, key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return Optional.ofNullable(book);
+    }
+
+    // Approximate while a snapshot is layered underneath: a book updated in place counts in both
+    @Override
+    public long size() {
+        BookColumns snapshot = base;
+        return columns.live + (snapshot == null ? 0 : Math.max(0, snapshot.live - shadowed.size()));
+    }
+
+    // Mapped snapshot pages belong to the page cache rather than the process, so they are not counted
+    @Override
+    public long bytesUsed() {
+        return columns.bytesUsed();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("books.store.size", this, ColumnarBookStore::size)
+                .description("Books held by the columnar store")
+                .register(registry);
+        Gauge.builder("books.store.bytes", this, ColumnarBookStore::bytesUsed)
+                .description("Off-heap bytes reserved by the columnar store")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("books.store.bytes.per.book", this,
+                        store -> store.size() == 0 ? 0 : (double) store.bytesUsed() / store.size())
+                .description("Off-heap bytes reserved per stored book, including spare capacity")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private BookResponse read(String isbn, byte[] key) {
+        BookColumns current = columns;
+        int row = current.find(key);
+        if (row >= 0) {
+            return current.read(row);
+        }
+        BookColumns snapshot = base;
+        if (snapshot == null || shadowed.contains(isbn)) {
+            return null;
+        }
+        row = snapshot.find(key);
+        return row < 0 ? null : snapshot.read(row);
+    }
+
+    private long headSeq() {
+        return changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES)
+                .map(ChangeSequence::getLastSeq)
+                .orElse(0L);
+    }
+
+    // Returns false when entries after the snapshot were already pruned from the log
+    private boolean replay(long snapshotSeq, long headSeq) {
+        long stamp = lock.writeLock();
+        try {
+            changedDuringLoad = new HashSet<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        try {
+            long lastSeq = snapshotSeq;
+            List<BookChange> changes;
+            do {
+                changes = bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(lastSeq, PageRequest.of(0, LOAD_BATCH));
+                // Sequence numbers have no holes, so a jump means entries were pruned before we read them
+                if (lastSeq < headSeq && (changes.isEmpty() || changes.get(0).getSeq() != lastSeq + 1)) {
+                    return false;
+                }
+                stamp = lock.writeLock();
+                try {
+                    for (BookChange change : changes) {
+                        if (!changedDuringLoad.contains(change.getBookId())) {
+                            apply(BookChangedEvent.replicated(change));
+                        }
+                    }
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                if (!changes.isEmpty()) {
+                    lastSeq = changes.get(changes.size() - 1).getSeq();
+                }
+            } while (changes.size() == LOAD_BATCH);
+            return true;
+        } finally {
+            stamp = lock.writeLock();
+            try {
+                changedDuringLoad = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    // Inserts the snapshot's rows with their original ids, after moving the id sequence past them. Each
+    // batch is announced as created in the same transaction, so the change log records the rows for the
+    // changes feed and other nodes, and the name index and statistics pick them up. A row whose id or ISBN
+    // a new write took first is skipped.
+    private void restore() {
+        BookColumns snapshot = base;
+        long maxId = 0;
+        for (int row = 0; row < snapshot.rows; row++) {
+            maxId = Math.max(maxId, snapshot.id(row));
+        }
+        // Past a whole id block, since Hibernate hands out ids up to one allocation below the sequence value
+        jdbcTemplate.execute("alter sequence books_seq restart with " + (maxId + 51));
+
+        List<BookResponse> batch = new ArrayList<>(LOAD_BATCH);
+        for (int row = 0; row < snapshot.rows; row++) {
+            if (snapshot.id(row) != BookColumns.DELETED) {
+                batch.add(snapshot.read(row));
+            }
+            if (batch.size() == LOAD_BATCH) {
+                restore(batch);
+                batch.clear();
+            }
+        }
+        restore(batch);
+    }
+
+    private void restore(List<BookResponse> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+        } catch (DataIntegrityViolationException e) {
+            for (BookResponse book : batch) {
+                try {
+                    insert(Collections.singletonList(book));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    // Taken by a write made since startup, which wins
+                }
+            }
+        }
+    }
+
+    private void insert(List<BookResponse> books) {
+        List<Object[]> rows = new ArrayList<>(books.size());
+        for (BookResponse book : books) {
+            rows.add(new Object[]{book.getId(), book.getName(), book.getIsbn(),
+                    book.getPublishDate() == null ? null : Date.valueOf(book.getPublishDate()),
+                    book.getPrice(),
+                    book.getBookType() == null ? null : book.getBookType().name(),
+                    book.getVersion(),
+                    book.getUpdatedAt() == null ? null : Timestamp.from(book.getUpdatedAt())});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_BOOK, rows);
+            books.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+        });
+        // The rows bypassed Hibernate, so anything the l2cache profile cached about them, such as an ISBN
+        // looked up and not found, is dropped; without that profile these are no-ops
+        secondLevelCache.evictEntityData(Book.class);
+        secondLevelCache.evictNaturalIdData(Book.class);
+        secondLevelCache.evictDefaultQueryRegion();
+    }
+
+    // Caller holds the write lock
+    private void apply(BookChangedEvent event) {
+        BookResponse previous = event.getPrevious();
+        BookResponse current = event.getCurrent();
+        if (current == null) {
+            remove(previous);
+        } else {
+            upsert(current);
+        }
+    }
+
+    // Only the row of the deleted book goes: a replayed delete must not take a book since created under its ISBN
+    private void remove(BookResponse previous) {
+        byte[] key = BookColumns.utf8(previous.getIsbn());
+        int row = columns.find(key);
+        if (row >= 0 && isRowOf(columns, row, previous)) {
+            columns.delete(row);
+        }
+        BookColumns snapshot = base;
+        if (snapshot != null) {
+            int baseRow = snapshot.find(key);
+            if (baseRow >= 0 && isRowOf(snapshot, baseRow, previous)) {
+                shadowed.add(previous.getIsbn());
+            }
+        }
+    }
+
+    // Caller holds the write lock. A change older than the stored row is a late delivery and is dropped.
+    private void upsert(BookResponse book) {
+        byte[] key = BookColumns.utf8(book.getIsbn());
+        int row = columns.find(key);
+        if (row >= 0) {
+            if (isNewer(columns.version(row), book, false)) {
+                return;
+            }
+            if (!columns.overwrite(row, book)) {
+                // Grown columns hold the same row with room for the new name; growing drops garbage, so once is enough
+                columns = columns.growFor(book);
+                columns.overwrite(columns.find(key), book);
+            }
+            return;
+        }
+        BookColumns snapshot = base;
+        if (snapshot != null && !reloading && !shadowed.contains(book.getIsbn())) {
+            // Replays and restored rows repeat what the snapshot already holds; only newer states are kept
+            int baseRow = snapshot.find(key);
+            if (baseRow >= 0 && isNewer(snapshot.version(baseRow), book, true)) {
+                return;
+            }
+        }
+        columns = columns.appendGrowing(book);
+    }
+
+    private static boolean isNewer(long stored, BookResponse book, boolean orSame) {
+        if (book.getVersion() == null || stored == BookColumns.NO_LONG) {
+            return false;
+        }
+        return orSame ? stored >= book.getVersion() : stored > book.getVersion();
+    }
+
+    private static boolean isRowOf(BookColumns columns, int row, BookResponse book) {
+        return book.getId() == null || columns.id(row) == book.getId();
+    }
+}
@@ -22,7 +22,10 @@ public class BookMapper {
                 book.getIsbn(),
                 book.getPublishDate(),
                 book.getPrice(),
-                book.getBookType()
+                book.getBookType(),
+                book.getId(),
+                book.getVersion(),
+                book.getUpdatedAt()
         );
     }
 
@@ -0,0 +1,20 @@
+package com.payu.assessment.bookcatalogue.util;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+public class ConstraintViolations {
+
+    // SQL standard state for a unique/primary key violation, reported by H2 and PostgreSQL alike
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    public static boolean isUniqueViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && UNIQUE_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package com.payu.assessment.bookcatalogue.util;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+
+import java.util.List;
+
+public class ETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // id + version: ids are never reused, so a deleted and recreated book gets a new tag
+    public static String of(Long id, Long version) {
+        if (id == null || version == null) {
+            return null;
+        }
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public static String of(BookResponse book) {
+        return of(book.getId(), book.getVersion());
+    }
+
+    public static String of(List<BookResponse> books, String nextCursor) {
+        long hash = FNV_OFFSET;
+        for (BookResponse book : books) {
+            if (book.getId() == null || book.getVersion() == null) {
+                return null;
+            }
+            hash = mix(hash, book.getId());
+            hash = mix(hash, book.getVersion());
+        }
+        if (nextCursor != null) {
+            hash = mix(hash, nextCursor.hashCode());
+        }
+        return "\"" + books.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    public static long lastModified(List<BookResponse> books) {
+        long lastModified = -1;
+        for (BookResponse book : books) {
+            if (book.getUpdatedAt() != null) {
+                lastModified = Math.max(lastModified, book.getUpdatedAt().toEpochMilli());
+            }
+        }
+        return lastModified;
+    }
+
+    // Strong comparison as required for If-Match; no header means no precondition
+    public static boolean matches(String ifMatch, Long id, Long version) {
+        if (ifMatch == null) {
+            return true;
+        }
+        if (ifMatch.trim().equals("*")) {
+            return true;
+        }
+        String current = of(id, version);
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
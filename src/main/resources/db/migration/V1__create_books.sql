@@ -0,0 +1,19 @@
+create sequence books_seq start with 1 increment by 50;
+
+create table books (
+    id           bigint           not null,
+    name         varchar(255)     not null,
+    isbn         varchar(255)     not null,
+    publish_date date,
+    price        double precision,
+    book_type    varchar(255),
+    version      bigint,
+    updated_at   timestamp,
+    constraint pk_books primary key (id),
+    constraint uk_books_isbn unique (isbn)
+);
+
+create index idx_books_name on books (name);
+create index idx_books_type_price on books (book_type, price);
+create index idx_books_price on books (price);
+create index idx_books_publish_date on books (publish_date);
@@ -0,0 +1,23 @@
+create table book_change_sequence (
+    id       bigint not null,
+    last_seq bigint not null,
+    constraint pk_book_change_sequence primary key (id)
+);
+
+insert into book_change_sequence (id, last_seq) values (1, 0);
+
+create table book_changes (
+    seq          bigint           not null,
+    type         varchar(255)     not null,
+    book_id      bigint           not null,
+    isbn         varchar(255)     not null,
+    name         varchar(255),
+    publish_date date,
+    price        double precision,
+    book_type    varchar(255),
+    version      bigint,
+    changed_at   timestamp        not null,
+    constraint pk_book_changes primary key (seq)
+);
+
+create index idx_book_changes_changed_at on book_changes (changed_at);
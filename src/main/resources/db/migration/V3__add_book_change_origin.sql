@@ -0,0 +1,2 @@
+alter table book_changes add column previous_isbn varchar(255);
+alter table book_changes add column origin varchar(255);
@@ -0,0 +1,13 @@
+create table book_ingest_failures (
+    tracking_id  varchar(36)      not null,
+    isbn         varchar(255),
+    name         varchar(255),
+    publish_date date,
+    price        double precision,
+    book_type    varchar(255),
+    reason       varchar(1000)    not null,
+    failed_at    timestamp        not null,
+    constraint pk_book_ingest_failures primary key (tracking_id)
+);
+
+create index idx_book_ingest_failures_failed_at on book_ingest_failures (failed_at);
@@ -0,0 +1 @@
+alter table book_changes drop column previous_isbn;
@@ -0,0 +1,3 @@
+alter table books add column name_lower varchar(255) generated always as (lower(name));
+
+create index idx_books_name_lower on books (name_lower);
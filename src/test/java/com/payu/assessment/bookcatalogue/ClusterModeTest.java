@@ -0,0 +1,164 @@
+package com.payu.assessment.bookcatalogue;
+
+import com.payu.assessment.bookcatalogue.changes.BookChangeFeed;
+import com.payu.assessment.bookcatalogue.dto.BookChangePage;
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookSuggestion;
+import com.payu.assessment.bookcatalogue.event.BookResyncEvent;
+import com.payu.assessment.bookcatalogue.exception.BookNotFoundException;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.search.BookNameIndex;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterModeTest {
+
+    // Poll interval plus generous slack for a loaded build machine
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    @TempDir
+    Path dataDir;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    // Node B also runs the Hibernate second-level cache, which must follow node A's writes too
+    @BeforeEach
+    void setUp() {
+        nodeA = start("a", "persistent", "cluster");
+        nodeB = start("b", "persistent", "cluster", "l2cache");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void writesOnOneNode_reachCachesOfTheOther() {
+        BookService a = nodeA.getBean(BookService.class);
+        BookService b = nodeB.getBean(BookService.class);
+
+        a.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+        assertEquals(10.0, b.getBookResponseByIsbn("111").getPrice());
+
+        a.updateBookByIsbn("111", new BookRequest("Renamed", "111", testLocalDate, 12.0, BookType.EBOOK), null);
+        eventually(() -> b.getBookResponseByIsbn("111").getPrice() == 12.0);
+        eventually(() -> suggestions(nodeB, "renamed").equals("111"));
+
+        a.deleteBookByIsbn("111", null);
+        eventually(() -> isMissing(b, "111"));
+    }
+
+    @Test
+    void createOnOneNode_clearsNegativeCacheOfTheOther() {
+        BookService b = nodeB.getBean(BookService.class);
+        assertTrue(isMissing(b, "222"));
+
+        nodeA.getBean(BookService.class).addBook(new BookRequest("Book2", "222", testLocalDate, 10.0, BookType.EBOOK));
+
+        eventually(() -> !isMissing(b, "222"));
+    }
+
+    @Test
+    void writeOnOneNode_wakesLongPollOnTheOther() {
+        BookChangeFeed feedB = nodeB.getBean(BookChangeFeed.class);
+        DeferredResult<BookChangePage> poll = feedB.poll(0, 10, MAX_LAG.toMillis() * 2);
+        assertFalse(poll.hasResult());
+
+        nodeA.getBean(BookService.class).addBook(new BookRequest("Book3", "333", testLocalDate, 10.0, BookType.EBOOK));
+
+        eventually(poll::hasResult);
+        assertEquals("333", ((BookChangePage) poll.getResult()).getChanges().get(0).getIsbn());
+    }
+
+    @Test
+    void writesOnOneNode_evictSecondLevelCacheOfTheOther() {
+        BookService a = nodeA.getBean(BookService.class);
+        BookRepository b = nodeB.getBean(BookRepository.class);
+
+        a.addBook(new BookRequest("Book4", "444", testLocalDate, 10.0, BookType.EBOOK));
+        eventually(() -> b.findByIsbn("444").isPresent());
+
+        a.updateBookByIsbn("444", new BookRequest("Book4", "444", testLocalDate, 20.0, BookType.EBOOK), null);
+        eventually(() -> b.findByIsbn("444").get().getPrice() == 20.0);
+
+        a.deleteBookByIsbn("444", null);
+        eventually(() -> !b.findByIsbn("444").isPresent());
+
+        Long recreated = a.addBook(new BookRequest("Book4", "444", testLocalDate, 30.0, BookType.EBOOK)).getId();
+        eventually(() -> b.findByIsbn("444").map(Book::getId).equals(Optional.of(recreated)));
+    }
+
+    @Test
+    void resync_bringsEveryViewOfTheOtherNodeInLine() {
+        BookService b = nodeB.getBean(BookService.class);
+        assertTrue(isMissing(b, "555"));
+
+        // Written behind the change log's back, as if its entry had been pruned before node B read it
+        nodeA.getBean(BookRepository.class).save(new Book("Missed", "555", testLocalDate, 10.0, BookType.EBOOK));
+        nodeB.publishEvent(new BookResyncEvent(1, 2));
+
+        eventually(() -> !isMissing(b, "555"));
+        eventually(() -> suggestions(nodeB, "missed").equals("555"));
+        eventually(() -> nodeB.getBean(BookRepository.class).findByIsbn("555").isPresent());
+    }
+
+    private ConfigurableApplicationContext start(String nodeId, String... profiles) {
+        return new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .run("--catalogue.data-dir=" + dataDir.toAbsolutePath(),
+                        "--catalogue.cluster.node-id=" + nodeId,
+                        "--catalogue.cluster.poll-interval=PT0.05S");
+    }
+
+    private static String suggestions(ConfigurableApplicationContext node, String query) {
+        return node.getBean(BookNameIndex.class).suggest(query, 10).stream()
+                .map(BookSuggestion::getIsbn)
+                .collect(Collectors.joining(","));
+    }
+
+    private static boolean isMissing(BookService bookService, String isbn) {
+        try {
+            bookService.getBookResponseByIsbn(isbn);
+            return false;
+        } catch (BookNotFoundException e) {
+            return true;
+        }
+    }
+
+    private static void eventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + MAX_LAG.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "node B did not catch up within " + MAX_LAG);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
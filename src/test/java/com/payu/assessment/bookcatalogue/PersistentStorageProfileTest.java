@@ -0,0 +1,57 @@
+package com.payu.assessment.bookcatalogue;
+
+import com.payu.assessment.bookcatalogue.changes.BookChangeFeed;
+import com.payu.assessment.bookcatalogue.dto.BookChangeResponse;
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentStorageProfileTest {
+
+    @TempDir
+    Path dataDir;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    @Test
+    void catalogue_survivesRestartOnMigratedSchema() {
+        Long firstId;
+        try (ConfigurableApplicationContext first = start()) {
+            firstId = first.getBean(BookService.class)
+                    .addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK)).getId();
+        }
+
+        try (ConfigurableApplicationContext second = start()) {
+            BookService bookService = second.getBean(BookService.class);
+            assertEquals("Book1", bookService.getBookByIsbn("111").getName());
+
+            Book added = bookService.addBook(new BookRequest("Book2", "222", testLocalDate, 12.0, BookType.EBOOK));
+            assertNotEquals(firstId, added.getId());
+            assertEquals("6", second.getBean(Flyway.class).info().current().getVersion().getVersion());
+            assertEquals(Arrays.asList(1L, 2L), second.getBean(BookChangeFeed.class).read(0, 10).getChanges().stream()
+                    .map(BookChangeResponse::getSeq)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("persistent")
+                .run("--catalogue.data-dir=" + dataDir.toAbsolutePath());
+    }
+}
@@ -0,0 +1,114 @@
+package com.payu.assessment.bookcatalogue;
+
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecondLevelCacheProfileTest {
+
+    private static final int LOOKUPS = 100;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    @Test
+    void isbnLookups_areServedFromTheCacheAfterTheFirst() {
+        try (ConfigurableApplicationContext context = start("jdbc:h2:mem:l2cache-isbn", "l2cache")) {
+            BookRepository bookRepository = context.getBean(BookRepository.class);
+            addBooks(context);
+            Statistics statistics = coldStatistics(context);
+
+            assertEquals("Book1", bookRepository.findByIsbn("111").get().getName());
+            long firstLookup = statistics.getPrepareStatementCount();
+            assertTrue(firstLookup > 0);
+
+            for (int i = 0; i < LOOKUPS; i++) {
+                assertEquals("Book1", bookRepository.findByIsbn("111").get().getName());
+            }
+
+            assertEquals(firstLookup, statistics.getPrepareStatementCount());
+            assertTrue(statistics.getNaturalIdCacheHitCount() >= LOOKUPS);
+            assertTrue(statistics.getSecondLevelCacheHitCount() >= LOOKUPS);
+            assertFalse(bookRepository.findByIsbn("999").isPresent());
+        }
+    }
+
+    @Test
+    void isbnLookups_withoutTheProfile_queryEveryTime() {
+        try (ConfigurableApplicationContext context = start("jdbc:h2:mem:l2cache-off")) {
+            BookRepository bookRepository = context.getBean(BookRepository.class);
+            addBooks(context);
+            Statistics statistics = coldStatistics(context);
+
+            for (int i = 0; i < LOOKUPS; i++) {
+                assertEquals("Book1", bookRepository.findByIsbn("111").get().getName());
+            }
+
+            assertEquals(LOOKUPS, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        }
+    }
+
+    @Test
+    void cacheableQueries_areReusedUntilTheTableChanges() {
+        try (ConfigurableApplicationContext context = start("jdbc:h2:mem:l2cache-query", "l2cache")) {
+            BookRepository bookRepository = context.getBean(BookRepository.class);
+            addBooks(context);
+            Statistics statistics = coldStatistics(context);
+            List<String> isbns = Arrays.asList("111", "222");
+
+            assertEquals(2, bookRepository.findByIsbnIn(isbns).size());
+            long firstQuery = statistics.getPrepareStatementCount();
+            assertEquals(2, bookRepository.findByIsbnIn(isbns).size());
+
+            assertEquals(firstQuery, statistics.getPrepareStatementCount());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+
+            context.getBean(BookService.class)
+                    .updateBookByIsbn("222", new BookRequest("Book2", "222", testLocalDate, 15.0, BookType.EBOOK), null);
+            Book updated = bookRepository.findByIsbnIn(isbns).stream()
+                    .filter(book -> book.getIsbn().equals("222"))
+                    .findFirst()
+                    .get();
+
+            assertEquals(15.0, updated.getPrice());
+            assertEquals(15.0, bookRepository.findByIsbn("222").get().getPrice());
+        }
+    }
+
+    private void addBooks(ConfigurableApplicationContext context) {
+        BookService bookService = context.getBean(BookService.class);
+        bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+        bookService.addBook(new BookRequest("Book2", "222", testLocalDate, 12.0, BookType.HARDCOVER));
+    }
+
+    // Writes fill the cache as they commit; emptying it makes the first read go to the database
+    private static Statistics coldStatistics(ConfigurableApplicationContext context) {
+        SessionFactory sessionFactory = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static ConfigurableApplicationContext start(String url, String... profiles) {
+        return new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .run("--spring.datasource.url=" + url);
+    }
+}
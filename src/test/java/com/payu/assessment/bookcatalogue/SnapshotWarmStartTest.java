@@ -0,0 +1,138 @@
+package com.payu.assessment.bookcatalogue;
+
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookSuggestion;
+import com.payu.assessment.bookcatalogue.exception.BookNotFoundException;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookChange;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookChangeRepository;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.search.BookNameIndex;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import com.payu.assessment.bookcatalogue.store.BookStore;
+import com.payu.assessment.bookcatalogue.store.ColumnarBookStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotWarmStartTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(10);
+
+    @TempDir
+    Path dataDir;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    @Test
+    void inMemoryRestart_servesFromSnapshotAndRestoresTheDatabase() {
+        Book first;
+        try (ConfigurableApplicationContext before = start("jdbc:h2:mem:snapshot-before")) {
+            BookService bookService = before.getBean(BookService.class);
+            first = bookService.addBook(new BookRequest("Warm Start", "111", testLocalDate, 10.0, BookType.EBOOK));
+            bookService.addBook(new BookRequest("Second Book", "222", testLocalDate, 12.0, BookType.HARDCOVER));
+        }
+        assertTrue(Files.exists(dataDir.resolve("books.snapshot")));
+
+        try (ConfigurableApplicationContext after = start("jdbc:h2:mem:snapshot-after")) {
+            // Mapped while the context started, before the database holds a single row
+            assertTrue(after.getBean(BookStore.class).isReady());
+            BookService bookService = after.getBean(BookService.class);
+            assertEquals("Warm Start", bookService.getBookResponseByIsbn("111").getName());
+
+            BookRepository bookRepository = after.getBean(BookRepository.class);
+            eventually(() -> bookRepository.count() == 2);
+            assertEquals(first.getId(), bookRepository.findByIsbn("111").get().getId());
+            // Restored rows are logged like any other write, so the changes feed and other nodes see them
+            assertEquals("111,222", after.getBean(BookChangeRepository.class).findAll().stream()
+                    .map(BookChange::getIsbn)
+                    .sorted()
+                    .collect(Collectors.joining(",")));
+            eventually(() -> suggestions(after, "warm").equals("111"));
+
+            Book added = bookService.addBook(new BookRequest("Third Book", "333", testLocalDate, 9.0, BookType.EBOOK));
+            assertTrue(added.getId() > first.getId());
+            bookService.deleteBookByIsbn("111", null);
+            assertThrows(BookNotFoundException.class, () -> bookService.getBookResponseByIsbn("111"));
+        }
+    }
+
+    @Test
+    void persistentRestart_replaysChangesMadeAfterTheSnapshot() {
+        try (ConfigurableApplicationContext before = startPersistent()) {
+            BookService bookService = before.getBean(BookService.class);
+            bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+            bookService.addBook(new BookRequest("Book2", "222", testLocalDate, 12.0, BookType.EBOOK));
+            before.getBean(ColumnarBookStore.class).writeSnapshot();
+
+            bookService.deleteBookByIsbn("111", null);
+            bookService.updateBookByIsbn("222", new BookRequest("Renamed", "222", testLocalDate, 14.0, BookType.EBOOK), null);
+        }
+
+        try (ConfigurableApplicationContext after = startPersistent()) {
+            BookService bookService = after.getBean(BookService.class);
+            eventually(() -> isMissing(bookService, "111")
+                    && "Renamed".equals(bookService.getBookResponseByIsbn("222").getName()));
+            assertEquals(14.0, bookService.getBookResponseByIsbn("222").getPrice());
+        }
+    }
+
+    private ConfigurableApplicationContext start(String url) {
+        return new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--catalogue.store.engine=columnar",
+                        "--catalogue.store.snapshot.path=" + dataDir.resolve("books.snapshot"));
+    }
+
+    // The snapshot is written by hand here, so shutdown leaves it as it was
+    private ConfigurableApplicationContext startPersistent() {
+        return new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("persistent")
+                .run("--catalogue.data-dir=" + dataDir.toAbsolutePath(),
+                        "--catalogue.store.engine=columnar",
+                        "--catalogue.store.snapshot.path=" + dataDir.resolve("books.snapshot"),
+                        "--catalogue.store.snapshot.on-shutdown=false");
+    }
+
+    private static String suggestions(ConfigurableApplicationContext context, String query) {
+        return context.getBean(BookNameIndex.class).suggest(query, 10).stream()
+                .map(BookSuggestion::getIsbn)
+                .collect(Collectors.joining(","));
+    }
+
+    private static boolean isMissing(BookService bookService, String isbn) {
+        try {
+            bookService.getBookResponseByIsbn(isbn);
+            return false;
+        } catch (BookNotFoundException e) {
+            return true;
+        }
+    }
+
+    private static void eventually(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + MAX_LAG.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "store did not catch up within " + MAX_LAG);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.payu.assessment.bookcatalogue.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookResponseBytesCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+    private BookResponseBytesCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookResponseBytesCache(objectMapper, 100);
+    }
+
+    @Test
+    void get_sameVersion_reusesSerializedBytes() throws Exception {
+        BookResponse book = response("Book1", 3L);
+
+        byte[] first = cache.get(book).getJson();
+        byte[] second = cache.get(response("Book1", 3L)).getJson();
+
+        assertSame(first, second);
+        assertArrayEquals(objectMapper.writeValueAsBytes(book), first);
+        assertTrue(new String(first, StandardCharsets.UTF_8).contains("\"publishDate\":\"24/10/2025\""));
+    }
+
+    @Test
+    void get_newerVersion_reserializes() {
+        cache.get(response("Book1", 3L));
+
+        byte[] updated = cache.get(response("Book1 v2", 4L)).getJson();
+
+        assertTrue(new String(updated, StandardCharsets.UTF_8).contains("Book1 v2"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_olderVersionDoesNotReplaceNewer() {
+        byte[] newer = cache.get(response("Book1 v2", 4L)).getJson();
+        cache.get(response("Book1", 3L));
+
+        assertSame(newer, cache.get(response("Book1 v2", 4L)).getJson());
+    }
+
+    @Test
+    void get_unversionedBook_isNotCached() {
+        cache.get(new BookResponse("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void onBookChanged_dropsBytesOfPreviousVersion() {
+        BookResponse previous = response("Book1", 3L);
+        cache.get(previous);
+
+        cache.onBookChanged(BookChangedEvent.deleted(previous));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void getGzip_compressesOnlyWhenSmaller() throws IOException {
+        assertNull(cache.get(response("Short", 1L)).getGzip());
+
+        char[] name = new char[2000];
+        Arrays.fill(name, 'a');
+        BookResponse large = new BookResponse(new String(name), "222", testLocalDate, 10.0, BookType.EBOOK, 2L, 1L, null);
+        BookResponseBytesCache.SerializedBook serialized = cache.get(large);
+
+        byte[] gzip = serialized.getGzip();
+        assertTrue(gzip.length < serialized.getJson().length);
+        assertSame(gzip, serialized.getGzip());
+        assertArrayEquals(serialized.getJson(), gunzip(gzip));
+    }
+
+    private BookResponse response(String name, Long version) {
+        return new BookResponse(name, "111", testLocalDate, 10.0, BookType.EBOOK, 1L, version, null);
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,179 @@
+package com.payu.assessment.bookcatalogue.changes;
+
+import com.payu.assessment.bookcatalogue.dto.BookChangePage;
+import com.payu.assessment.bookcatalogue.dto.BookChangeResponse;
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.exception.BookAlreadyExistsException;
+import com.payu.assessment.bookcatalogue.exception.ChangesExpiredException;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookChangeRepository;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import com.payu.assessment.bookcatalogue.service.BookImportService;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookChangeFeedIntegrationTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookChangeFeed bookChangeFeed;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
+    @Autowired
+    private ChangeSequenceRepository changeSequenceRepository;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+    private long head;
+
+    @BeforeEach
+    void setUp() {
+        head = changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES).get().getLastSeq();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void read_returnsEveryWriteInCommitOrder() {
+        bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+        bookService.updateBookByIsbn("111", new BookRequest("Book1 v2", "111", testLocalDate, 12.0, BookType.EBOOK), null);
+        bookService.deleteBookByIsbn("111", null);
+
+        BookChangePage page = bookChangeFeed.read(head, 10);
+
+        List<BookChangeResponse> changes = page.getChanges();
+        assertEquals(Arrays.asList(BookChangedEvent.Type.CREATED, BookChangedEvent.Type.UPDATED, BookChangedEvent.Type.DELETED),
+                changes.stream().map(BookChangeResponse::getType).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(head + 1, head + 2, head + 3),
+                changes.stream().map(BookChangeResponse::getSeq).collect(Collectors.toList()));
+        assertEquals("Book1 v2", changes.get(1).getBook().getName());
+        assertEquals(Long.valueOf(1), changes.get(1).getVersion());
+        assertNull(changes.get(2).getBook());
+        assertEquals(head + 3, page.getNextSince());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void read_pagesWithNextSince() {
+        for (int i = 0; i < 5; i++) {
+            bookService.addBook(new BookRequest("Book" + i, "isbn-" + i, testLocalDate, 10.0, BookType.EBOOK));
+        }
+
+        BookChangePage first = bookChangeFeed.read(head, 3);
+        BookChangePage second = bookChangeFeed.read(first.getNextSince(), 3);
+
+        assertTrue(first.isHasMore());
+        assertEquals(3, first.getChanges().size());
+        assertFalse(second.isHasMore());
+        assertEquals("isbn-3", second.getChanges().get(0).getIsbn());
+    }
+
+    @Test
+    void failedWrite_recordsNothing() {
+        bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+
+        assertThrows(BookAlreadyExistsException.class,
+                () -> bookService.addBook(new BookRequest("Again", "111", testLocalDate, 10.0, BookType.EBOOK)));
+
+        assertEquals(1, bookChangeFeed.read(head, 10).getChanges().size());
+    }
+
+    @Test
+    void bulkImport_recordsOneChangePerRow() throws Exception {
+        String csv = "name,isbn,publishDate,price,bookType\nA,a-1,01/01/2020,1.0,EBOOK\nB,a-2,01/01/2020,2.0,EBOOK\nC,a-3,01/01/2020,3.0,EBOOK\n";
+
+        bookImportService.importBooks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+
+        assertEquals(3, bookChangeFeed.read(head, 10).getChanges().size());
+    }
+
+    @Test
+    void concurrentWriters_getContiguousSequenceNumbers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writes = new ArrayList<>();
+        try {
+            for (int i = 0; i < 40; i++) {
+                BookRequest request = new BookRequest("Book" + i, "c-" + i, testLocalDate, 10.0, BookType.EBOOK);
+                writes.add(executor.submit(() -> bookService.addBook(request)));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> seqs = bookChangeFeed.read(head, 100).getChanges().stream()
+                .map(BookChangeResponse::getSeq)
+                .collect(Collectors.toList());
+        assertEquals(40, seqs.size());
+        for (int i = 0; i < seqs.size(); i++) {
+            assertEquals(head + 1 + i, seqs.get(i));
+        }
+    }
+
+    @Test
+    void poll_completesWhenChangeCommits() throws Exception {
+        DeferredResult<BookChangePage> result = bookChangeFeed.poll(head, 10, 10_000);
+        assertFalse(result.hasResult());
+
+        bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!result.hasResult() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        BookChangePage page = (BookChangePage) result.getResult();
+        assertEquals("111", page.getChanges().get(0).getIsbn());
+    }
+
+    @Test
+    void read_afterPrunedEntries_throwsChangesExpired() {
+        bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+        bookService.addBook(new BookRequest("Book2", "222", testLocalDate, 10.0, BookType.EBOOK));
+        bookChangeRepository.deleteById(head + 1);
+
+        assertThrows(ChangesExpiredException.class, () -> bookChangeFeed.read(head, 10));
+        assertEquals(1, bookChangeFeed.read(head + 1, 10).getChanges().size());
+
+        bookChangeRepository.deleteById(head + 2);
+        assertThrows(ChangesExpiredException.class, () -> bookChangeFeed.read(head + 1, 10));
+        assertTrue(bookChangeFeed.read(head + 2, 10).getChanges().isEmpty());
+        assertEquals(0, bookChangeFeed.prune());
+    }
+}
@@ -0,0 +1,53 @@
+package com.payu.assessment.bookcatalogue.config;
+
+import com.payu.assessment.bookcatalogue.util.VirtualThreads;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual")
+@Import(VirtualThreadConfigTest.ThreadProbe.class)
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeAll
+    static void requireVirtualThreads() {
+        assumeTrue(VirtualThreads.isSupported(), "virtual threads need Java 21+");
+    }
+
+    @Test
+    void requests_runOnVirtualThreads() {
+        String thread = restTemplate.getForObject("/test/thread", String.class);
+
+        assertTrue(thread.startsWith("virtual http-vt-"), thread);
+    }
+
+    @Test
+    void books_areServedInVirtualMode() {
+        assertEquals("[]", restTemplate.getForObject("/api/books/suggest?q=anything", String.class));
+    }
+
+    @TestConfiguration
+    @RestController
+    static class ThreadProbe {
+
+        @GetMapping("/test/thread")
+        String thread() {
+            Thread current = Thread.currentThread();
+            return (VirtualThreads.isVirtual(current) ? "virtual " : "platform ") + current.getName();
+        }
+    }
+}
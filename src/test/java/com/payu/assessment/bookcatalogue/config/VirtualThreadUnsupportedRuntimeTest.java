@@ -0,0 +1,51 @@
+package com.payu.assessment.bookcatalogue.config;
+
+import com.payu.assessment.bookcatalogue.BookCatalogueApiApplication;
+import com.payu.assessment.bookcatalogue.util.VirtualThreads;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+// The counterpart of VirtualThreadConfigTest for runtimes older than Java 21, where it is skipped
+class VirtualThreadUnsupportedRuntimeTest {
+
+    @BeforeAll
+    static void requireRuntimeWithoutVirtualThreads() {
+        assumeFalse(VirtualThreads.isSupported(), "runtime supports virtual threads");
+    }
+
+    @Test
+    void virtualMode_refusesToStart() {
+        Exception e = assertThrows(Exception.class, () -> start("virtual").close());
+
+        String message = rootCause(e).getMessage();
+        assertTrue(message.startsWith("Virtual threads need Java 21 or newer"), message);
+    }
+
+    @Test
+    void platformMode_keepsTheTomcatThreadPool() {
+        try (ConfigurableApplicationContext context = start()) {
+            assertTrue(context.getBeansOfType(VirtualThreadConfig.class).isEmpty());
+            assertFalse(context.containsBean("virtualThreadExecutor"));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... profiles) {
+        return new SpringApplicationBuilder(BookCatalogueApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .run();
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+}
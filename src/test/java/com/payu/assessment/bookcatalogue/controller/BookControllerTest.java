@@ -1,39 +1,120 @@
 package com.payu.assessment.bookcatalogue.controller;
 
+import com.payu.assessment.bookcatalogue.cache.BookResponseBytesCache;
+import com.payu.assessment.bookcatalogue.changes.BookChangeFeed;
+import com.payu.assessment.bookcatalogue.dto.BookBatchResponse;
+import com.payu.assessment.bookcatalogue.dto.BookChangePage;
+import com.payu.assessment.bookcatalogue.dto.BookChangeResponse;
+import com.payu.assessment.bookcatalogue.dto.BookIngestResponse;
 import com.payu.assessment.bookcatalogue.dto.BookRequest;
 import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSearchCriteria;
+import com.payu.assessment.bookcatalogue.dto.BookStatsResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSuggestion;
+import com.payu.assessment.bookcatalogue.dto.NameMatch;
+import com.payu.assessment.bookcatalogue.dto.BulkDeleteRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkImportError;
+import com.payu.assessment.bookcatalogue.dto.BulkUpdateRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkWriteResponse;
+import com.payu.assessment.bookcatalogue.dto.BulkImportResponse;
+import com.payu.assessment.bookcatalogue.dto.CacheStatsResponse;
+import com.payu.assessment.bookcatalogue.dto.ExportFormat;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+import com.payu.assessment.bookcatalogue.dto.IngestStatus;
 import com.payu.assessment.bookcatalogue.exception.BookAlreadyExistsException;
 import com.payu.assessment.bookcatalogue.exception.BookNotFoundException;
+import com.payu.assessment.bookcatalogue.exception.ChangesExpiredException;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.exception.IngestQueueFullException;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.exception.PreconditionFailedException;
 import com.payu.assessment.bookcatalogue.model.Book;
 import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.search.BookNameIndex;
+import com.payu.assessment.bookcatalogue.service.BookExportService;
+import com.payu.assessment.bookcatalogue.service.BookImportService;
+import com.payu.assessment.bookcatalogue.service.BookIngestService;
 import com.payu.assessment.bookcatalogue.service.BookService;
+import com.payu.assessment.bookcatalogue.stats.BookStatistics;
 import com.payu.assessment.bookcatalogue.util.BookMapper;
+import com.payu.assessment.bookcatalogue.util.CursorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(BookController.class)
+@WebMvcTest(controllers = BookController.class, properties = "catalogue.rate-limit.enabled=false")
+@Import(BookResponseBytesCache.class)
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, SimpleMetricsExportAutoConfiguration.class})
 class BookControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookImportService bookImportService;
+
+    @MockBean
+    private BookExportService bookExportService;
+
+    @MockBean
+    private BookIngestService bookIngestService;
+
+    @MockBean
+    private BookNameIndex bookNameIndex;
+
+    @MockBean
+    private BookChangeFeed bookChangeFeed;
+
+    @MockBean
+    private BookStatistics bookStatistics;
+
     private final String addBookStringBody = "{"
             + "\"name\":\"Book1\","
             + "\"isbn\":\"111\","
@@ -54,10 +135,11 @@ class BookControllerTest {
 
     // ------------------ GET /api/books ------------------
     @Test
-    void getAllBooks_returnsListOfBookResponses() throws Exception {
+    void getBooks_returnsPageOfBookResponses() throws Exception {
         Book book1 = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
         Book book2 = new Book("Book2", "222", testLocalDate, 189.99, BookType.SOFTCOVER);
-        when(bookService.getAllBooks()).thenReturn(Arrays.asList(book1, book2));
+        when(bookService.getBooksPage(isNull(), eq(100)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(book1, book2), PageRequest.of(0, 100), false));
 
         List<BookResponse> responses = Arrays.asList(
                 BookMapper.toResponse(book1),
@@ -66,8 +148,252 @@ class BookControllerTest {
 
         mockMvc.perform(get("/api/books"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(responses.size()))
-                .andExpect(jsonPath("$[0].name").value("Book1"));
+                .andExpect(jsonPath("$.items.length()").value(responses.size()))
+                .andExpect(jsonPath("$.items[0].name").value("Book1"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getBooks_withMorePages_returnsCursorOfLastBook() throws Exception {
+        Book book1 = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
+        book1.setId(7L);
+        when(bookService.getBooksPage(eq("abc"), eq(1)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(book1), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/api/books").param("cursor", "abc").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(CursorCodec.encode(7L)));
+    }
+
+    @Test
+    void getBooks_matchingIfNoneMatch_returns304() throws Exception {
+        Book book1 = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
+        book1.setId(5L);
+        book1.setVersion(3L);
+        when(bookService.getBooksPage(isNull(), eq(100)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(book1), PageRequest.of(0, 100), false));
+
+        String etag = mockMvc.perform(get("/api/books"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/books").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getBooks_noConnectionAvailable_returns503WithRetryAfter() throws Exception {
+        when(bookService.getBooksPage(isNull(), anyInt()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+
+        mockMvc.perform(get("/api/books"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getBooks_invalidCursor_returns400() throws Exception {
+        when(bookService.getBooksPage(eq("bad"), anyInt()))
+                .thenThrow(new InvalidRequestException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/books").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ------------------ GET /api/books/search ------------------
+    @Test
+    void searchBooks_bindsFiltersAndReturnsSlice() throws Exception {
+        Book book1 = new Book("Java 101", "111", testLocalDate, 149.99, BookType.HARDCOVER);
+        when(bookService.searchBooks(any(BookSearchCriteria.class), eq(1), eq(10), eq("price,desc")))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(book1), PageRequest.of(1, 10), true));
+
+        mockMvc.perform(get("/api/books/search")
+                        .param("name", "Java")
+                        .param("nameMatch", "CONTAINS")
+                        .param("bookType", "HARDCOVER")
+                        .param("minPrice", "100")
+                        .param("publishedFrom", "01/01/2025")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("sort", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].isbn").value("111"))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(bookService).searchBooks(argThat(criteria -> "Java".equals(criteria.getName())
+                && criteria.getNameMatch() == NameMatch.CONTAINS
+                && criteria.getBookType() == BookType.HARDCOVER
+                && criteria.getMinPrice() == 100.0
+                && LocalDate.of(2025, 1, 1).equals(criteria.getPublishedFrom())), eq(1), eq(10), eq("price,desc"));
+    }
+
+    @Test
+    void searchBooks_unknownBookType_returns400() throws Exception {
+        mockMvc.perform(get("/api/books/search").param("bookType", "SCROLL"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).searchBooks(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void searchBooks_invalidSort_returns400() throws Exception {
+        when(bookService.searchBooks(any(BookSearchCriteria.class), anyInt(), anyInt(), eq("id")))
+                .thenThrow(new InvalidRequestException("Cannot sort by 'id'"));
+
+        mockMvc.perform(get("/api/books/search").param("sort", "id"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ------------------ GET /api/books/suggest ------------------
+    @Test
+    void suggestBooks_returnsRankedSuggestions() throws Exception {
+        when(bookNameIndex.suggest("jav", 5)).thenReturn(Arrays.asList(
+                new BookSuggestion("111", "Java Basics"), new BookSuggestion("222", "Learning Java")));
+
+        mockMvc.perform(get("/api/books/suggest").param("q", "jav").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].isbn").value("111"))
+                .andExpect(jsonPath("$[1].name").value("Learning Java"));
+    }
+
+    @Test
+    void suggestBooks_invalidLimit_returns400() throws Exception {
+        when(bookNameIndex.suggest("jav", 500)).thenThrow(new InvalidRequestException("Limit must be between 1 and 50"));
+
+        mockMvc.perform(get("/api/books/suggest").param("q", "jav").param("limit", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ------------------ PATCH / DELETE /api/books/bulk ------------------
+    @Test
+    void updateBooks_byFilter_returnsAffectedCount() throws Exception {
+        when(bookService.updateBooks(any(BulkUpdateRequest.class))).thenReturn(new BulkWriteResponse(42, Collections.emptyList()));
+
+        mockMvc.perform(patch("/api/books/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"bookType\":\"EBOOK\",\"publishedFrom\":\"01/01/2020\"},\"priceChangePercent\":-10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(42));
+
+        verify(bookService).updateBooks(argThat(request -> request.getFilter().getBookType() == BookType.EBOOK
+                && LocalDate.of(2020, 1, 1).equals(request.getFilter().getPublishedFrom())
+                && request.getPriceChangePercent() == -10.0));
+    }
+
+    @Test
+    void deleteBooks_byIsbns_returnsAffectedAndMissing() throws Exception {
+        when(bookService.deleteBooks(any(BulkDeleteRequest.class)))
+                .thenReturn(new BulkWriteResponse(1, Collections.singletonList("222")));
+
+        mockMvc.perform(delete("/api/books/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbns\":[\"111\",\"222\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1))
+                .andExpect(jsonPath("$.missing[0]").value("222"));
+    }
+
+    @Test
+    void updateBooks_invalidRequest_returns400() throws Exception {
+        when(bookService.updateBooks(any(BulkUpdateRequest.class)))
+                .thenThrow(new InvalidRequestException("Give either a non-empty isbns list or a filter"));
+
+        mockMvc.perform(patch("/api/books/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\":5}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ------------------ GET /api/books/changes ------------------
+    @Test
+    void getChanges_returnsPageOfChanges() throws Exception {
+        BookChangeResponse change = new BookChangeResponse(8L, BookChangedEvent.Type.DELETED, "111", 2L,
+                Instant.parse("2025-10-24T10:15:30Z"), null);
+        DeferredResult<BookChangePage> result = new DeferredResult<>();
+        result.setResult(new BookChangePage(Collections.singletonList(change), 8L, false));
+        when(bookChangeFeed.poll(7L, 100, 0L)).thenReturn(result);
+
+        MvcResult async = mockMvc.perform(get("/api/books/changes").param("since", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].seq").value(8))
+                .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.nextSince").value(8))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getChanges_prunedSince_returns410() throws Exception {
+        when(bookChangeFeed.poll(1L, 100, 0L)).thenThrow(new ChangesExpiredException("Changes after 1 are no longer retained"));
+
+        mockMvc.perform(get("/api/books/changes").param("since", "1"))
+                .andExpect(status().isGone());
+    }
+
+    // ------------------ GET /api/books/stream ------------------
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllBooks_writesJsonArrayIncrementally() throws Exception {
+        Book book1 = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
+        Book book2 = new Book("Book2", "222", testLocalDate, 189.99, BookType.SOFTCOVER);
+        doAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(book1);
+            consumer.accept(book2);
+            return null;
+        }).when(bookService).streamAllBooks(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/books/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].isbn").value("222"))
+                .andExpect(jsonPath("$[1].publishDate").value("24/10/2025"));
+    }
+
+    // ------------------ GET /api/books/export ------------------
+    @Test
+    void exportBooks_gzipAccepted_compressesRequestedRange() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":43}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(bookExportService).exportBooks(any(OutputStream.class), eq(ExportFormat.NDJSON), eq(42L), eq(10L));
+
+        MvcResult result = mockMvc.perform(get("/api/books/export")
+                        .param("afterId", "42")
+                        .param("limit", "10")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"books.ndjson\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":43}\n", new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void exportBooks_unknownFormat_returns400() throws Exception {
+        mockMvc.perform(get("/api/books/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookExportService);
     }
 
 
@@ -75,7 +401,7 @@ class BookControllerTest {
     @Test
     void getBookByIsbn_existingIsbn_returnsBookResponse() throws Exception {
         Book book = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
-        when(bookService.getBookByIsbn("111")).thenReturn(book);
+        when(bookService.getBookResponseByIsbn("111")).thenReturn(BookMapper.toResponse(book));
 
         mockMvc.perform(get("/api/books/isbn/111"))
                 .andExpect(status().isOk())
@@ -83,12 +409,102 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.isbn").value("111"));
     }
 
+    @Test
+    void getBookByIsbn_versionedBook_sendsValidators() throws Exception {
+        when(bookService.getBookResponseByIsbn("111")).thenReturn(versionedResponse());
+
+        mockMvc.perform(get("/api/books/isbn/111"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void getBookByIsbn_matchingIfNoneMatch_returns304WithoutBody() throws Exception {
+        when(bookService.getBookResponseByIsbn("111")).thenReturn(versionedResponse());
+
+        mockMvc.perform(get("/api/books/isbn/111").header("If-None-Match", "\"5-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getBookByIsbn_staleIfNoneMatch_returnsBody() throws Exception {
+        when(bookService.getBookResponseByIsbn("111")).thenReturn(versionedResponse());
+
+        mockMvc.perform(get("/api/books/isbn/111").header("If-None-Match", "\"5-2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Book1"));
+    }
+
+    @Test
+    void getBookByIsbn_acceptsGzip_returnsCompressedJson() throws Exception {
+        char[] name = new char[1000];
+        Arrays.fill(name, 'a');
+        when(bookService.getBookResponseByIsbn("999")).thenReturn(new BookResponse(new String(name), "999",
+                testLocalDate, 149.99, BookType.HARDCOVER, 9L, 1L, null));
+
+        byte[] body = mockMvc.perform(get("/api/books/isbn/999").header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"isbn\":\"999\""));
+        }
+    }
+
+    @Test
+    void getBookByIsbn_gzipRefused_returnsPlainJson() throws Exception {
+        when(bookService.getBookResponseByIsbn("111")).thenReturn(versionedResponse());
+
+        mockMvc.perform(get("/api/books/isbn/111").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.publishDate").value("24/10/2025"));
+    }
+
     @Test
     void getBookByIsbn_nonExistingIsbn_returns404() throws Exception {
-        when(bookService.getBookByIsbn("111")).thenThrow(new BookNotFoundException("Book not found"));
+        when(bookService.getBookResponseByIsbn("111")).thenThrow(new BookNotFoundException("Book not found"));
+        double before = errorCount("book_not_found");
 
         mockMvc.perform(get("/api/books/isbn/111"))
                 .andExpect(status().isNotFound());
+
+        assertEquals(before + 1, errorCount("book_not_found"));
+    }
+
+    // ------------------ GET /api/books/isbn?ids= ------------------
+    @Test
+    void getBooksByIsbns_returnsFoundAndMissing() throws Exception {
+        Book book = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
+        when(bookService.getBookResponsesByIsbns(Arrays.asList("111", "222")))
+                .thenReturn(new BookBatchResponse(Collections.singletonList(BookMapper.toResponse(book)),
+                        Collections.singletonList("222")));
+
+        mockMvc.perform(get("/api/books/isbn").param("ids", "111,222"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books.length()").value(1))
+                .andExpect(jsonPath("$.books[0].isbn").value("111"))
+                .andExpect(jsonPath("$.missing[0]").value("222"));
+    }
+
+    // ------------------ GET /api/books/cache/stats ------------------
+    @Test
+    void getIsbnCacheStats_returnsCounters() throws Exception {
+        when(bookService.getIsbnCacheStats()).thenReturn(new CacheStatsResponse(3, 95, 5, 0.95, 1));
+
+        mockMvc.perform(get("/api/books/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(jsonPath("$.hitCount").value(95))
+                .andExpect(jsonPath("$.missCount").value(5))
+                .andExpect(jsonPath("$.evictionCount").value(1));
     }
 
 
@@ -113,11 +529,103 @@ class BookControllerTest {
     void addBook_existingIsbn_returnsConflict() throws Exception {
         when(bookService.addBook(any(BookRequest.class)))
                 .thenThrow(new BookAlreadyExistsException("Book with ISBN already exists"));
+        double before = errorCount("book_already_exists");
 
         mockMvc.perform(post("/api/books")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(addBookStringBody))
                 .andExpect(status().isConflict());
+
+        assertEquals(before + 1, errorCount("book_already_exists"));
+    }
+
+    @Test
+    void addBook_constraintViolation_returnsConflict() throws Exception {
+        when(bookService.addBook(any(BookRequest.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement"));
+
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(addBookStringBody))
+                .andExpect(status().isConflict());
+    }
+
+    // ------------------ GET /api/books/stats ------------------
+    @Test
+    void getStats_returnsAggregates() throws Exception {
+        Map<BookType, Long> byType = new EnumMap<>(BookType.class);
+        byType.put(BookType.EBOOK, 2L);
+        when(bookStatistics.getStats()).thenReturn(new BookStatsResponse(2, byType, 10.0, 20.0, 15.0,
+                new TreeMap<>(Collections.singletonMap(2025, 2L)), Instant.parse("2025-10-24T09:15:00Z")));
+
+        mockMvc.perform(get("/api/books/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books").value(2))
+                .andExpect(jsonPath("$.booksByType.EBOOK").value(2))
+                .andExpect(jsonPath("$.averagePrice").value(15.0))
+                .andExpect(jsonPath("$.booksByPublishYear.2025").value(2));
+    }
+
+    // ------------------ POST /api/books/ingest ------------------
+    @Test
+    void ingestBook_returnsAcceptedWithTrackingLocation() throws Exception {
+        when(bookIngestService.submit(any(BookRequest.class)))
+                .thenReturn(new BookIngestResponse("abc", IngestStatus.QUEUED, "111", null));
+
+        mockMvc.perform(post("/api/books/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(addBookStringBody))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/books/ingest/abc"))
+                .andExpect(jsonPath("$.trackingId").value("abc"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void ingestBook_queueFull_returns503WithRetryAfter() throws Exception {
+        when(bookIngestService.submit(any(BookRequest.class)))
+                .thenThrow(new IngestQueueFullException("Ingest queue is full, retry shortly"));
+
+        mockMvc.perform(post("/api/books/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(addBookStringBody))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getIngestStatus_unknownTrackingId_returns404() throws Exception {
+        when(bookIngestService.getStatus("nope")).thenReturn(null);
+
+        mockMvc.perform(get("/api/books/ingest/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ------------------ POST /api/books/bulk ------------------
+    @Test
+    void importBooks_csvBody_returnsImportReport() throws Exception {
+        when(bookImportService.importBooks(any(InputStream.class), eq(ImportFormat.CSV)))
+                .thenReturn(new BulkImportResponse(2, 1, 1,
+                        Collections.singletonList(new BulkImportError(3, "111", "A book with this ISBN already exists")),
+                        false));
+
+        mockMvc.perform(post("/api/books/bulk")
+                        .contentType("text/csv")
+                        .content("name,isbn,publishDate,price,bookType\nBook2,222,24/10/2025,10,EBOOK\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
+    @Test
+    void importBooks_unsupportedContentType_returns415() throws Exception {
+        mockMvc.perform(post("/api/books/bulk")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<books/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(bookImportService);
     }
 
     // ------------------ PUT /api/books/isbn/{isbn} ------------------
@@ -125,7 +633,7 @@ class BookControllerTest {
     void updateBook_existingIsbn_returnsUpdatedBookResponse() throws Exception {
         Book updated = new Book("Updated", "111", testLocalDate, 189.99, BookType.SOFTCOVER);
 
-        when(bookService.updateBookByIsbn(eq("111"), any(BookRequest.class))).thenReturn(updated);
+        when(bookService.updateBookByIsbn(eq("111"), any(BookRequest.class), isNull())).thenReturn(updated);
 
         mockMvc.perform(put("/api/books/isbn/111")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -134,10 +642,49 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.name").value("Updated"));
     }
 
+    @Test
+    void updateBook_upsert_delegatesToUpsert() throws Exception {
+        Book upserted = new Book("Updated", "111", testLocalDate, 20.0, BookType.SOFTCOVER);
+        when(bookService.upsertBookByIsbn(eq("111"), any(BookRequest.class), isNull())).thenReturn(upserted);
+
+        mockMvc.perform(put("/api/books/isbn/111").param("upsert", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBookstringBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Updated"));
+
+        verify(bookService, never()).updateBookByIsbn(anyString(), any(BookRequest.class), any());
+    }
+
+    @Test
+    void updateBook_ifMatch_isPassedToServiceAndNewETagReturned() throws Exception {
+        Book updated = new Book("Updated", "111", testLocalDate, 20.0, BookType.SOFTCOVER);
+        updated.setId(5L);
+        updated.setVersion(4L);
+        when(bookService.updateBookByIsbn(eq("111"), any(BookRequest.class), eq("\"5-3\""))).thenReturn(updated);
+
+        mockMvc.perform(put("/api/books/isbn/111").header("If-Match", "\"5-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBookstringBody))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-4\""));
+    }
+
+    @Test
+    void updateBook_staleIfMatch_returns412() throws Exception {
+        when(bookService.updateBookByIsbn(eq("111"), any(BookRequest.class), eq("\"5-2\"")))
+                .thenThrow(new PreconditionFailedException("Book with ISBN 111 has been modified"));
+
+        mockMvc.perform(put("/api/books/isbn/111").header("If-Match", "\"5-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBookstringBody))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void updateBook_nonExistingIsbn_returns404() throws Exception {
         // Mock service to throw BookNotFoundException
-        when(bookService.updateBookByIsbn(eq("111"), any(BookRequest.class)))
+        when(bookService.updateBookByIsbn(eq("111"), any(BookRequest.class), isNull()))
                 .thenThrow(new BookNotFoundException("Book not found"));
 
         mockMvc.perform(put("/api/books/isbn/111")
@@ -150,23 +697,32 @@ class BookControllerTest {
     @Test
     void deleteBook_existingIsbn_returnsNoContent() throws Exception {
         // No exception thrown, service returns true
-        when(bookService.deleteBookByIsbn("111")).thenReturn(true);
+        when(bookService.deleteBookByIsbn("111", null)).thenReturn(true);
 
         mockMvc.perform(delete("/api/books/isbn/111"))
                 .andExpect(status().isNoContent());
 
-        verify(bookService, times(1)).deleteBookByIsbn("111");
+        verify(bookService, times(1)).deleteBookByIsbn("111", null);
     }
 
     @Test
     void deleteBook_nonExistingIsbn_returns404() throws Exception {
         // Mock the service to throw exception when ISBN not found
         doThrow(new BookNotFoundException("Book not found"))
-                .when(bookService).deleteBookByIsbn("111");
+                .when(bookService).deleteBookByIsbn("111", null);
 
         mockMvc.perform(delete("/api/books/isbn/111")) // Must match controller path
                 .andExpect(status().isNotFound());
 
-        verify(bookService, times(1)).deleteBookByIsbn("111");
+        verify(bookService, times(1)).deleteBookByIsbn("111", null);
+    }
+
+    private double errorCount(String type) {
+        return meterRegistry.get("books.errors").tag("type", type).counter().count();
+    }
+
+    private BookResponse versionedResponse() {
+        return new BookResponse("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER,
+                5L, 3L, Instant.parse("2025-10-24T10:15:30Z"));
     }
 }
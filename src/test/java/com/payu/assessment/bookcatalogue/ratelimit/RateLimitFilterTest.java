@@ -0,0 +1,124 @@
+package com.payu.assessment.bookcatalogue.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 10 tokens of burst, refilled at 10 per second
+        filter = new RateLimitFilter(10, 10, 1, 5, 5, 3, "X-Client-Id", meterRegistry, now::get);
+    }
+
+    @Test
+    void burstWithinCapacity_isAdmittedThenRejectedWithRetryAfter() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/api/books/isbn/111", "1.1.1.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = perform("GET", "/api/books/isbn/111", "1.1.1.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("books.ratelimit.rejected").counter().count());
+    }
+
+    @Test
+    void tokensRefillOverTime() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            perform("GET", "/api/books/isbn/111", "1.1.1.1");
+        }
+        assertEquals(429, perform("GET", "/api/books/isbn/111", "1.1.1.1").getStatus());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(200, perform("GET", "/api/books/isbn/111", "1.1.1.1").getStatus());
+        assertEquals(429, perform("GET", "/api/books/isbn/111", "1.1.1.1").getStatus());
+    }
+
+    @Test
+    void listsAndWritesCostMoreThanPointLookups() throws Exception {
+        assertEquals(200, perform("GET", "/api/books", "1.1.1.1").getStatus());
+        assertEquals(200, perform("PATCH", "/api/books/bulk", "1.1.1.1").getStatus());
+
+        MockHttpServletResponse rejected = perform("GET", "/api/books/search", "1.1.1.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), filter.tryAcquire("1.1.1.1", 5));
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() throws Exception {
+        perform("GET", "/api/books", "1.1.1.1");
+        perform("GET", "/api/books", "1.1.1.1");
+
+        assertEquals(429, perform("GET", "/api/books", "1.1.1.1").getStatus());
+        assertEquals(200, perform("GET", "/api/books", "2.2.2.2").getStatus());
+
+        MockHttpServletRequest keyed = request("GET", "/api/books", "1.1.1.1");
+        keyed.addHeader("X-Client-Id", "partner-a");
+        assertEquals(200, filter(keyed).getStatus());
+    }
+
+    @Test
+    void nonApiPaths_areNotLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, perform("GET", "/actuator/prometheus", "1.1.1.1").getStatus());
+        }
+        assertEquals(0, filter.trackedClients());
+    }
+
+    @Test
+    void evictIdle_dropsOnlyRefilledBuckets() throws Exception {
+        perform("GET", "/api/books/isbn/111", "1.1.1.1");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        perform("GET", "/api/books", "2.2.2.2");
+
+        filter.evictIdle();
+
+        assertEquals(1, filter.trackedClients());
+    }
+
+    @Test
+    void clientsBeyondMaxShareOverflowBucket() throws Exception {
+        perform("GET", "/api/books/isbn/1", "1.1.1.1");
+        perform("GET", "/api/books/isbn/1", "2.2.2.2");
+        perform("GET", "/api/books/isbn/1", "3.3.3.3");
+
+        assertEquals(200, perform("GET", "/api/books", "4.4.4.4").getStatus());
+        assertEquals(200, perform("GET", "/api/books", "5.5.5.5").getStatus());
+        assertEquals(429, perform("GET", "/api/books", "6.6.6.6").getStatus());
+        assertEquals(4, filter.trackedClients());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, String remoteAddr) throws Exception {
+        return filter(request(method, uri, remoteAddr));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,187 @@
+package com.payu.assessment.bookcatalogue.search;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSuggestion;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BookNameIndexTest {
+
+    private BookService bookService;
+    private BookNameIndex index;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    @BeforeEach
+    void setUp() {
+        bookService = mock(BookService.class);
+        index = new BookNameIndex(bookService);
+
+        created(1L, "111", "Java Concurrency in Practice");
+        created(2L, "222", "Effective Java");
+        created(3L, "333", "JavaScript: The Good Parts");
+        created(4L, "444", "Clean Code");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void build_indexesEveryStoredBook() {
+        Book stored = new Book("Domain-Driven Design", "555", testLocalDate, 10.0, BookType.EBOOK);
+        stored.setId(5L);
+        doAnswer(invocation -> {
+            ((Consumer<Book>) invocation.getArgument(0)).accept(stored);
+            return null;
+        }).when(bookService).streamAllBooks(any(Consumer.class));
+
+        BookNameIndex fresh = new BookNameIndex(bookService);
+        fresh.build();
+
+        assertFalse(fresh.isBuilding());
+        assertEquals(1, fresh.size());
+        assertEquals(Arrays.asList("555"), isbns(fresh.suggest("domain dri", 10)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void build_doesNotResurrectBooksDeletedDuringScan() {
+        Book stored = new Book("Domain-Driven Design", "555", testLocalDate, 10.0, BookType.EBOOK);
+        stored.setId(5L);
+        BookNameIndex fresh = new BookNameIndex(bookService);
+        doAnswer(invocation -> {
+            fresh.onBookChanged(BookChangedEvent.deleted(response(5L, "555", "Domain-Driven Design", 0L)));
+            ((Consumer<Book>) invocation.getArgument(0)).accept(stored);
+            return null;
+        }).when(bookService).streamAllBooks(any(Consumer.class));
+
+        fresh.build();
+
+        assertEquals(0, fresh.size());
+    }
+
+    @Test
+    void suggest_prefix_ranksExactTokenAndLeadingMatchFirst() {
+        assertEquals(Arrays.asList("333", "111", "222"), isbns(index.suggest("jav", 10)));
+        assertEquals(Arrays.asList("111", "222", "333"), isbns(index.suggest("java", 10)));
+    }
+
+    @Test
+    void suggest_multipleTerms_requiresEveryTerm() {
+        assertEquals(Arrays.asList("111"), isbns(index.suggest("java prac", 10)));
+        assertTrue(index.suggest("clean java", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_ignoresCaseAndAccents() {
+        created(6L, "666", "Café Society");
+
+        assertEquals(Arrays.asList("666"), isbns(index.suggest("CAFE", 10)));
+    }
+
+    @Test
+    void suggest_toleratesSingleTypo() {
+        assertEquals(Arrays.asList("111"), isbns(index.suggest("concurency", 10)));
+        assertEquals(Arrays.asList("222"), isbns(index.suggest("efective", 10)));
+        assertEquals(Arrays.asList("444"), isbns(index.suggest("claen code", 10)));
+    }
+
+    @Test
+    void suggest_respectsLimit() {
+        assertEquals(1, index.suggest("java", 1).size());
+        assertThrows(InvalidRequestException.class, () -> index.suggest("java", 0));
+        assertThrows(InvalidRequestException.class, () -> index.suggest("java", BookNameIndex.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void suggest_commonWord_stopsAtCandidateCapWithExactMatchesFirst() {
+        for (long id = 100; id < 100 + BookNameIndex.MAX_CANDIDATES_PER_TERM; id++) {
+            index.index(id, "c" + id, "Common Title " + id, 0L);
+        }
+        index.index(99L, "commons", "Commons", 0L);
+
+        Map<Long, Integer> candidates = index.match("common", true);
+
+        assertEquals(BookNameIndex.MAX_CANDIDATES_PER_TERM, candidates.size());
+        assertFalse(candidates.containsKey(99L));
+        assertEquals(10, index.suggest("common", 10).size());
+    }
+
+    @Test
+    void suggest_blankQuery_returnsNothing() {
+        assertTrue(index.suggest("  -- ", 10).isEmpty());
+    }
+
+    @Test
+    void onBookChanged_updateReplacesOldTokens() {
+        BookResponse previous = response(4L, "444", "Clean Code", 0L);
+        index.onBookChanged(BookChangedEvent.updated(previous, response(4L, "444", "Refactoring", 1L)));
+
+        assertTrue(index.suggest("clean", 10).isEmpty());
+        assertEquals(Arrays.asList("444"), isbns(index.suggest("refac", 10)));
+    }
+
+    @Test
+    void onBookChanged_olderVersionDoesNotOverwriteNewer() {
+        index.onBookChanged(BookChangedEvent.updated(null, response(4L, "444", "Refactoring", 3L)));
+        index.onBookChanged(BookChangedEvent.updated(null, response(4L, "444", "Clean Code", 2L)));
+
+        assertEquals(Arrays.asList("444"), isbns(index.suggest("refactoring", 10)));
+    }
+
+    @Test
+    void onBookChanged_deleteRemovesBookAndUnusedTokens() {
+        index.onBookChanged(BookChangedEvent.deleted(response(2L, "222", "Effective Java", 0L)));
+
+        assertEquals(3, index.size());
+        assertTrue(index.suggest("effective", 10).isEmpty());
+        assertEquals(Arrays.asList("111", "333"), isbns(index.suggest("java", 10)));
+    }
+
+    @Test
+    void tokenize_boundsTokensPerTitle() {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            name.append("word").append(i).append(' ');
+        }
+        name.append(repeat('x', 500));
+
+        List<String> tokens = BookNameIndex.tokenize(name.toString());
+
+        assertEquals(BookNameIndex.MAX_TOKENS_PER_TITLE, tokens.size());
+        assertEquals(Arrays.asList("abc", repeat('y', BookNameIndex.MAX_TOKEN_LENGTH)),
+                BookNameIndex.tokenize("ABC " + repeat('y', 100)));
+    }
+
+    private void created(Long id, String isbn, String name) {
+        index.onBookChanged(BookChangedEvent.created(response(id, isbn, name, 0L)));
+    }
+
+    private BookResponse response(Long id, String isbn, String name, Long version) {
+        return new BookResponse(name, isbn, testLocalDate, 10.0, BookType.HARDCOVER, id, version, null);
+    }
+
+    private static List<String> isbns(List<BookSuggestion> suggestions) {
+        return suggestions.stream().map(BookSuggestion::getIsbn).collect(Collectors.toList());
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
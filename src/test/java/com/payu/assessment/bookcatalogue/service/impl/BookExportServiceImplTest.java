@@ -0,0 +1,116 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.payu.assessment.bookcatalogue.dto.BulkImportResponse;
+import com.payu.assessment.bookcatalogue.dto.ExportFormat;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookExportServiceImplTest {
+
+    @Autowired
+    private BookExportServiceImpl bookExportService;
+
+    @Autowired
+    private BookImportServiceImpl bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        books.add(bookRepository.save(new Book("Book, One", "111", LocalDate.of(2025, 10, 24), 149.99, BookType.HARDCOVER)));
+        books.add(bookRepository.save(new Book("Book \"Two\"", "222", LocalDate.of(2020, 1, 1), 10.0, BookType.EBOOK)));
+        books.add(bookRepository.save(new Book("Book3", "333", LocalDate.of(2019, 5, 6), 0.5, BookType.AUDIOBOOK)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exportBooks_ndjson_resumesAfterIdWithinLimit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = bookExportService.exportBooks(out, ExportFormat.NDJSON, books.get(0).getId(), 1);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(1, written);
+        assertEquals(1, lines.length);
+        JsonNode row = objectMapper.readTree(lines[0]);
+        assertEquals(books.get(1).getId().longValue(), row.get("id").asLong());
+        assertEquals("Book \"Two\"", row.get("name").asText());
+        assertEquals("01/01/2020", row.get("publishDate").asText());
+        assertEquals(10.0, row.get("price").asDouble());
+        assertEquals("EBOOK", row.get("bookType").asText());
+        assertEquals(0, row.get("version").asLong());
+    }
+
+    @Test
+    void exportBooks_csv_canBeImportedAgain() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookExportService.exportBooks(out, ExportFormat.CSV, beforeFirst(), Long.MAX_VALUE);
+        bookRepository.deleteAllInBatch();
+
+        BulkImportResponse result = bookImportService.importBooks(new ByteArrayInputStream(out.toByteArray()), ImportFormat.CSV);
+
+        assertEquals(3, result.getImported());
+        assertEquals("Book, One", bookRepository.findByIsbn("111").get().getName());
+        assertEquals("Book \"Two\"", bookRepository.findByIsbn("222").get().getName());
+        assertEquals(0.5, bookRepository.findByIsbn("333").get().getPrice());
+    }
+
+    @Test
+    void exportBooks_cbor_writesHeaderThenPositionalRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        bookExportService.exportBooks(out, ExportFormat.CBOR, beforeFirst(), Long.MAX_VALUE);
+        bookExportService.exportBooks(json, ExportFormat.NDJSON, beforeFirst(), Long.MAX_VALUE);
+
+        List<JsonNode> items = new ArrayList<>();
+        // Read item by item: a MappingIterator would unwrap the leading header array
+        try (JsonParser parser = new ObjectMapper(new CBORFactory()).createParser(out.toByteArray())) {
+            while (parser.nextToken() != null) {
+                items.add(parser.readValueAsTree());
+            }
+        }
+
+        assertEquals(4, items.size());
+        assertEquals("isbn", items.get(0).get(2).asText());
+        assertEquals("333", items.get(3).get(2).asText());
+        assertEquals(0.5, items.get(3).get(4).asDouble());
+        assertTrue(out.size() < json.size());
+    }
+
+    // Other test classes share the database, so ranges start at this test's first book
+    private long beforeFirst() {
+        return books.get(0).getId() - 1;
+    }
+}
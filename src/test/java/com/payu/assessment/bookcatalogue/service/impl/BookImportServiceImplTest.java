@@ -0,0 +1,146 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.payu.assessment.bookcatalogue.dto.BulkImportResponse;
+import com.payu.assessment.bookcatalogue.dto.ImportFormat;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "catalogue.import.batch-size=2")
+class BookImportServiceImplTest {
+
+    @Autowired
+    private BookImportServiceImpl bookImportService;
+
+    @SpyBean
+    private BookRepository bookRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importBooks_csv_importsValidRowsAcrossChunks() throws IOException {
+        String csv = "name,isbn,publishDate,price,bookType\n"
+                + "Book1,111,24/10/2025,149.99,HARDCOVER\n"
+                + "\"Book, Two\",222,24/10/2025,10,softcover\n"
+                + "\n"
+                + "Book3,333,01/01/2020,0,EBOOK\n";
+
+        BulkImportResponse result = bookImportService.importBooks(body(csv), ImportFormat.CSV);
+
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals("Book, Two", bookRepository.findByIsbn("222").get().getName());
+        assertEquals(BookType.SOFTCOVER, bookRepository.findByIsbn("222").get().getBookType());
+    }
+
+    @Test
+    void importBooks_csv_reportsEachRejectedRow() throws IOException {
+        bookRepository.save(new Book("Existing", "111", LocalDate.of(2025, 10, 24), 1.0, BookType.EBOOK));
+        String csv = "isbn,name,price,publishDate,bookType\n"
+                + "111,Book1,149.99,24/10/2025,HARDCOVER\n"
+                + "222,Book2,-5,24/10/2025,HARDCOVER\n"
+                + "333,Book3,10,2025-10-24,HARDCOVER\n"
+                + "444,Book4,10,24/10/2025,HARDCOVER\n"
+                + "444,Book4 again,10,24/10/2025,HARDCOVER\n";
+
+        BulkImportResponse result = bookImportService.importBooks(body(csv), ImportFormat.CSV);
+
+        assertEquals(5, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertFalse(result.isErrorsTruncated());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals("111", result.getErrors().get(0).getIsbn());
+        assertTrue(result.getErrors().get(1).getMessage().contains("price"));
+        assertEquals(4, result.getErrors().get(2).getLine());
+        assertEquals(6, result.getErrors().get(3).getLine());
+        assertEquals("Existing", bookRepository.findByIsbn("111").get().getName());
+        assertTrue(bookRepository.findByIsbn("444").isPresent());
+    }
+
+    @Test
+    void importBooks_csvMissingColumn_throwsException() {
+        String csv = "name,isbn,price\nBook1,111,10\n";
+
+        assertThrows(InvalidRequestException.class,
+                () -> bookImportService.importBooks(body(csv), ImportFormat.CSV));
+    }
+
+    @Test
+    void importBooks_ndjson_importsValidRowsAndReportsMalformedLines() throws IOException {
+        String ndjson = "{\"name\":\"Book1\",\"isbn\":\"111\",\"publishDate\":\"24/10/2025\",\"price\":1.5,\"bookType\":\"EBOOK\"}\n"
+                + "{\"name\":\"Book2\",\"isbn\":\n"
+                + "{\"name\":\"Book3\",\"isbn\":\"333\",\"publishDate\":\"24/10/2025\",\"price\":2.5,\"bookType\":\"AUDIOBOOK\"}\n";
+
+        BulkImportResponse result = bookImportService.importBooks(body(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    void importBooks_isbnTakenAfterExistenceCheck_failsOnlyThatRow() throws IOException {
+        // Another writer commits "222" after the chunk looked for existing ISBNs and before it is written
+        doAnswer(invocation -> {
+            Collection<String> isbns = invocation.getArgument(0);
+            if (isbns.contains("222")) {
+                bookRepository.save(new Book("Raced", "222", LocalDate.of(2025, 10, 24), 1.0, BookType.EBOOK));
+            }
+            return Collections.emptyList();
+        }).when(bookRepository).findExistingIsbns(anyCollection());
+        String csv = "name,isbn,publishDate,price,bookType\n"
+                + "Book1,111,24/10/2025,10,EBOOK\n"
+                + "Book2,222,24/10/2025,10,EBOOK\n";
+
+        BulkImportResponse result = bookImportService.importBooks(body(csv), ImportFormat.CSV);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("222", result.getErrors().get(0).getIsbn());
+        assertEquals(BookChunkWriter.ALREADY_EXISTS, result.getErrors().get(0).getMessage());
+        assertTrue(bookRepository.findByIsbn("111").isPresent());
+        assertEquals("Raced", bookRepository.findByIsbn("222").get().getName());
+    }
+
+    @Test
+    void importBooks_ndjsonNullLine_isReportedAsRowError() throws IOException {
+        String ndjson = "null\n"
+                + "{\"name\":\"Book2\",\"isbn\":\"222\",\"publishDate\":\"24/10/2025\",\"price\":1.5,\"bookType\":\"EBOOK\"}\n";
+
+        BulkImportResponse result = bookImportService.importBooks(body(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().get(0).getLine());
+        assertEquals("Each line must be a JSON object", result.getErrors().get(0).getMessage());
+    }
+
+    private InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,161 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.payu.assessment.bookcatalogue.dto.BookIngestResponse;
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.IngestStatus;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.model.IngestFailure;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.repository.IngestFailureRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "catalogue.ingest.batch-size=2")
+class BookIngestServiceImplTest {
+
+    @Autowired
+    private BookIngestServiceImpl bookIngestService;
+
+    @SpyBean
+    private BookRepository bookRepository;
+
+    @SpyBean
+    private IngestFailureRepository ingestFailureRepository;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        ingestFailureRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void submit_writesQueuedBooksAcrossBatches() throws InterruptedException {
+        List<String> trackingIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            BookIngestResponse accepted = bookIngestService.submit(request("Book" + i, "10" + i));
+            assertEquals(IngestStatus.QUEUED, accepted.getStatus());
+            trackingIds.add(accepted.getTrackingId());
+        }
+
+        for (String trackingId : trackingIds) {
+            assertEquals(IngestStatus.WRITTEN, awaitOutcome(trackingId).getStatus());
+        }
+        assertEquals("Book3", bookRepository.findByIsbn("103").get().getName());
+    }
+
+    @Test
+    void submit_existingOrRepeatedIsbn_isRecordedAsFailure() throws InterruptedException {
+        bookRepository.save(new Book("Existing", "111", testLocalDate, 1.0, BookType.EBOOK));
+
+        String existing = bookIngestService.submit(request("Book1", "111")).getTrackingId();
+        String first = bookIngestService.submit(request("Book2", "222")).getTrackingId();
+        String repeated = bookIngestService.submit(request("Book2 again", "222")).getTrackingId();
+
+        BookIngestResponse failure = awaitOutcome(existing);
+        assertEquals(IngestStatus.FAILED, failure.getStatus());
+        assertEquals(BookIngestServiceImpl.ALREADY_EXISTS, failure.getMessage());
+        assertEquals(IngestStatus.WRITTEN, awaitOutcome(first).getStatus());
+        assertEquals(IngestStatus.FAILED, awaitOutcome(repeated).getStatus());
+
+        IngestFailure stored = ingestFailureRepository.findById(repeated).get();
+        assertEquals("Book2 again", stored.getName());
+        assertEquals(10.0, stored.getPrice());
+        assertEquals("Existing", bookRepository.findByIsbn("111").get().getName());
+    }
+
+    @Test
+    void submit_isbnTakenAfterExistenceCheck_failsOnlyThatRow() throws InterruptedException {
+        // Another writer commits "302" after the batch looked for existing ISBNs and before it is written
+        doAnswer(invocation -> {
+            Object existing = mockingDetails(bookRepository).getMockCreationSettings().getDefaultAnswer()
+                    .answer(invocation);
+            Collection<String> isbns = invocation.getArgument(0);
+            if (isbns.contains("302")) {
+                bookRepository.save(new Book("Raced", "302", testLocalDate, 1.0, BookType.EBOOK));
+            }
+            return existing;
+        }).when(bookRepository).findExistingIsbns(anyCollection());
+
+        String first = bookIngestService.submit(request("Book1", "301")).getTrackingId();
+        String raced = bookIngestService.submit(request("Book2", "302")).getTrackingId();
+        String third = bookIngestService.submit(request("Book3", "303")).getTrackingId();
+
+        assertEquals(IngestStatus.WRITTEN, awaitOutcome(first).getStatus());
+        assertEquals(BookIngestServiceImpl.ALREADY_EXISTS, awaitOutcome(raced).getMessage());
+        assertEquals(IngestStatus.WRITTEN, awaitOutcome(third).getStatus());
+        assertEquals("Book1", bookRepository.findByIsbn("301").get().getName());
+        assertEquals("Raced", bookRepository.findByIsbn("302").get().getName());
+        assertEquals("Book3", bookRepository.findByIsbn("303").get().getName());
+    }
+
+    @Test
+    void submit_failureRecordRefusedOnce_isStoredWithALaterBatch() throws InterruptedException {
+        AtomicBoolean refused = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (refused.compareAndSet(false, true)) {
+                throw new DataAccessResourceFailureException("database unavailable");
+            }
+            return mockingDetails(ingestFailureRepository).getMockCreationSettings().getDefaultAnswer()
+                    .answer(invocation);
+        }).when(ingestFailureRepository).saveAll(anyIterable());
+        bookRepository.save(new Book("Existing", "111", testLocalDate, 1.0, BookType.EBOOK));
+
+        String existing = bookIngestService.submit(request("Book1", "111")).getTrackingId();
+
+        assertEquals(IngestStatus.FAILED, awaitOutcome(existing).getStatus());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!ingestFailureRepository.existsById(existing) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(refused.get());
+        assertTrue(ingestFailureRepository.existsById(existing));
+    }
+
+    @Test
+    void submit_invalidRequest_isRejectedWithoutQueueing() {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> bookIngestService.submit(new BookRequest("Book1", "111", testLocalDate, -1.0, BookType.EBOOK)));
+
+        assertEquals("price Price cannot be negative", ex.getMessage());
+    }
+
+    @Test
+    void getStatus_unknownTrackingId_returnsNull() {
+        assertNull(bookIngestService.getStatus("unknown"));
+    }
+
+    private BookRequest request(String name, String isbn) {
+        return new BookRequest(name, isbn, testLocalDate, 10.0, BookType.EBOOK);
+    }
+
+    private BookIngestResponse awaitOutcome(String trackingId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        BookIngestResponse status = bookIngestService.getStatus(trackingId);
+        while (status.getStatus() == IngestStatus.QUEUED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = bookIngestService.getStatus(trackingId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,349 @@
+package com.payu.assessment.bookcatalogue.service.impl;
+
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookSearchCriteria;
+import com.payu.assessment.bookcatalogue.dto.BulkDeleteRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkUpdateRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkWriteResponse;
+import com.payu.assessment.bookcatalogue.dto.NameMatch;
+import com.payu.assessment.bookcatalogue.exception.BookAlreadyExistsException;
+import com.payu.assessment.bookcatalogue.exception.BookNotFoundException;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.exception.PreconditionFailedException;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.search.BookNameIndex;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import com.payu.assessment.bookcatalogue.util.ETags;
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+
+import javax.sql.DataSource;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.session_factory.interceptor="
+                + "com.payu.assessment.bookcatalogue.service.impl.BookServiceImplIntegrationTest$FlushHook")
+class BookServiceImplIntegrationTest {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookNameIndex bookNameIndex;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    @AfterEach
+    void tearDown() {
+        FlushHook.beforeUpdate = null;
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void updateBookByIsbn_versionChangedBeforeFlush_conflicts() {
+        bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+        // Another writer commits between the merge reading the row and the flush writing it
+        FlushHook.beforeUpdate = () -> {
+            FlushHook.beforeUpdate = null;
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.executeUpdate("update books set price = 30, version = version + 1 where isbn = '111'");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        assertThrows(OptimisticLockingFailureException.class, () -> bookService.updateBookByIsbn("111",
+                new BookRequest("Book1", "111", testLocalDate, 20.0, BookType.EBOOK), null));
+        assertEquals(30.0, bookRepository.findByIsbn("111").get().getPrice());
+    }
+
+    @Test
+    void addBook_concurrentSameIsbn_exactlyOneWinsAndOthersConflict() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                BookRequest request = new BookRequest("Writer " + i, "111", testLocalDate, 10.0, BookType.EBOOK);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookService.addBook(request);
+                        return true;
+                    } catch (BookAlreadyExistsException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    created++;
+                }
+            }
+            assertEquals(1, created);
+            assertEquals(1, bookRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void upsertBook_insertsThenUpdatesSameRow() {
+        bookService.upsertBookByIsbn("111", new BookRequest("First", "ignored", testLocalDate, 10.0, BookType.EBOOK), null);
+        bookService.upsertBookByIsbn("111", new BookRequest("Second", "111", testLocalDate, 12.5, BookType.EBOOK), null);
+
+        assertEquals(1, bookRepository.count());
+        assertEquals("Second", bookRepository.findByIsbn("111").get().getName());
+        assertEquals(12.5, bookService.getBookResponseByIsbn("111").getPrice());
+    }
+
+    @Test
+    void updateBook_bumpsVersionAndRejectsStaleIfMatch() {
+        Book created = bookService.addBook(new BookRequest("First", "111", testLocalDate, 10.0, BookType.EBOOK));
+        String firstETag = ETags.of(created.getId(), created.getVersion());
+
+        Book updated = bookService.updateBookByIsbn("111",
+                new BookRequest("Second", "111", testLocalDate, 10.0, BookType.EBOOK), firstETag);
+
+        assertEquals(created.getVersion() + 1, updated.getVersion());
+        assertNotNull(updated.getUpdatedAt());
+        assertEquals(updated.getVersion(), bookService.getBookResponseByIsbn("111").getVersion());
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateBookByIsbn("111",
+                new BookRequest("Third", "111", testLocalDate, 10.0, BookType.EBOOK), firstETag));
+        assertThrows(PreconditionFailedException.class, () -> bookService.deleteBookByIsbn("111", firstETag));
+        assertEquals("Second", bookRepository.findByIsbn("111").get().getName());
+    }
+
+    @Test
+    void searchBooks_combinesFiltersAndSorts() {
+        seedSearchBooks();
+        BookSearchCriteria criteria = new BookSearchCriteria();
+        criteria.setBookType(BookType.HARDCOVER);
+        criteria.setMinPrice(20.0);
+        criteria.setPublishedFrom(LocalDate.of(2020, 1, 1));
+
+        Slice<Book> result = bookService.searchBooks(criteria, 0, 10, "price,desc");
+
+        assertEquals(Arrays.asList("444", "222"), isbns(result));
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void searchBooks_nameMatchModes() {
+        seedSearchBooks();
+        BookSearchCriteria criteria = new BookSearchCriteria();
+        criteria.setName("Java");
+
+        assertEquals(Arrays.asList("111", "222"), isbns(bookService.searchBooks(criteria, 0, 10, "isbn")));
+
+        // Both modes ignore case alike
+        criteria.setName("java");
+        assertEquals(Arrays.asList("111", "222"), isbns(bookService.searchBooks(criteria, 0, 10, "isbn")));
+
+        criteria.setNameMatch(NameMatch.CONTAINS);
+        assertEquals(Arrays.asList("111", "222", "333"), isbns(bookService.searchBooks(criteria, 0, 10, "isbn")));
+
+        criteria.setName("100%");
+        assertTrue(bookService.searchBooks(criteria, 0, 10, null).getContent().isEmpty());
+    }
+
+    @Test
+    void searchBooks_pagesWithoutGapsOrDuplicates() {
+        seedSearchBooks();
+        BookSearchCriteria criteria = new BookSearchCriteria();
+
+        Slice<Book> first = bookService.searchBooks(criteria, 0, 3, "bookType");
+        Slice<Book> second = bookService.searchBooks(criteria, 1, 3, "bookType");
+
+        assertTrue(first.hasNext());
+        assertFalse(second.hasNext());
+        List<String> all = new ArrayList<>(isbns(first));
+        all.addAll(isbns(second));
+        assertEquals(4, all.stream().distinct().count());
+    }
+
+    @Test
+    void searchBooks_invalidRanges_throwInvalidRequest() {
+        BookSearchCriteria criteria = new BookSearchCriteria();
+        criteria.setMinPrice(50.0);
+        criteria.setMaxPrice(10.0);
+
+        assertThrows(InvalidRequestException.class, () -> bookService.searchBooks(criteria, 0, 10, null));
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.searchBooks(new BookSearchCriteria(), 0, 10, "version"));
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.searchBooks(new BookSearchCriteria(), 0, 10, "price,sideways"));
+    }
+
+    @Test
+    void suggest_followsCommittedWrites() {
+        bookService.addBook(new BookRequest("Refactoring Databases", "111", testLocalDate, 10.0, BookType.EBOOK));
+        assertEquals("111", bookNameIndex.suggest("refact", 10).get(0).getIsbn());
+
+        bookService.updateBookByIsbn("111", new BookRequest("Working Effectively", "111", testLocalDate, 10.0, BookType.EBOOK), null);
+        assertTrue(bookNameIndex.suggest("refact", 10).isEmpty());
+        assertEquals("111", bookNameIndex.suggest("working eff", 10).get(0).getIsbn());
+
+        bookService.deleteBookByIsbn("111", null);
+        assertTrue(bookNameIndex.suggest("working", 10).isEmpty());
+    }
+
+    @Test
+    void updateBooks_byFilter_updatesEveryMatchAcrossChunks() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BookServiceImpl.BULK_CHUNK_SIZE * 2 + 100; i++) {
+            books.add(new Book("Ebook " + i, "e-" + i, testLocalDate, 10.0, BookType.EBOOK));
+        }
+        books.add(new Book("Paper", "p-1", testLocalDate, 10.0, BookType.HARDCOVER));
+        bookRepository.saveAll(books);
+        assertEquals(10.0, bookService.getBookResponseByIsbn("e-0").getPrice());
+
+        BookSearchCriteria filter = new BookSearchCriteria();
+        filter.setBookType(BookType.EBOOK);
+        BulkWriteResponse response = bookService.updateBooks(
+                new BulkUpdateRequest(null, filter, null, -12.345, null, null));
+
+        assertEquals(books.size() - 1, response.getAffected());
+        Book updated = bookService.getBookByIsbn("e-1099");
+        assertEquals(8.77, updated.getPrice());
+        assertEquals(Long.valueOf(1), updated.getVersion());
+        assertEquals(8.77, bookService.getBookResponseByIsbn("e-0").getPrice());
+        assertEquals(10.0, bookService.getBookByIsbn("p-1").getPrice());
+        assertEquals(Long.valueOf(0), bookService.getBookByIsbn("p-1").getVersion());
+    }
+
+    @Test
+    void updateBooks_changingFilteredColumn_visitsEachRowOnce() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BookServiceImpl.BULK_CHUNK_SIZE + 1; i++) {
+            books.add(new Book("Ebook " + i, "e-" + i, testLocalDate, 10.0, BookType.EBOOK));
+        }
+        bookRepository.saveAll(books);
+
+        BookSearchCriteria filter = new BookSearchCriteria();
+        filter.setBookType(BookType.EBOOK);
+        BulkWriteResponse response = bookService.updateBooks(
+                new BulkUpdateRequest(null, filter, null, null, BookType.AUDIOBOOK, null));
+
+        assertEquals(books.size(), response.getAffected());
+        assertTrue(bookRepository.findAll().stream()
+                .allMatch(book -> book.getBookType() == BookType.AUDIOBOOK && book.getVersion() == 1));
+    }
+
+    @Test
+    void updateBooks_byIsbns_reportsMissingAndFollowsInIndex() {
+        bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK));
+        bookService.addBook(new BookRequest("Book2", "222", testLocalDate, 10.0, BookType.EBOOK));
+
+        BulkWriteResponse response = bookService.updateBooks(new BulkUpdateRequest(
+                Arrays.asList("111", "333", "111"), null, 5.0, null, null, LocalDate.of(2020, 1, 1)));
+
+        assertEquals(1, response.getAffected());
+        assertEquals(Collections.singletonList("333"), response.getMissing());
+        Book updated = bookService.getBookByIsbn("111");
+        assertEquals(5.0, updated.getPrice());
+        assertEquals(LocalDate.of(2020, 1, 1), updated.getPublishDate());
+        assertEquals(10.0, bookService.getBookByIsbn("222").getPrice());
+        assertThrows(PreconditionFailedException.class,
+                () -> bookService.updateBookByIsbn("111", new BookRequest("Book1", "111", testLocalDate, 1.0, BookType.EBOOK), "\"" + updated.getId() + "-0\""));
+    }
+
+    @Test
+    void updateBooks_rowWithoutVersion_getsFirstVersion() throws SQLException {
+        Long id = bookService.addBook(new BookRequest("Book1", "111", testLocalDate, 10.0, BookType.EBOOK)).getId();
+        // As stored before the version column existed
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("update books set version = null where isbn = '111'");
+        }
+
+        bookService.updateBooks(new BulkUpdateRequest(Collections.singletonList("111"), null, 5.0, null, null, null));
+
+        Book updated = bookRepository.findById(id).get();
+        assertEquals(5.0, updated.getPrice());
+        assertEquals(1L, updated.getVersion());
+    }
+
+    @Test
+    void deleteBooks_byPublishDateRange_removesMatchesFromTableAndIndex() {
+        bookService.addBook(new BookRequest("Java Basics", "111", LocalDate.of(2019, 5, 1), 30.0, BookType.HARDCOVER));
+        bookService.addBook(new BookRequest("Java Streams", "222", LocalDate.of(2021, 3, 1), 25.0, BookType.HARDCOVER));
+        bookService.addBook(new BookRequest("Modern java", "333", LocalDate.of(2022, 7, 1), 15.0, BookType.EBOOK));
+        bookService.addBook(new BookRequest("Kotlin in Action", "444", LocalDate.of(2023, 1, 1), 40.0, BookType.HARDCOVER));
+        bookService.getBookResponseByIsbn("222");
+
+        BookSearchCriteria filter = new BookSearchCriteria();
+        filter.setPublishedFrom(LocalDate.of(2021, 1, 1));
+        filter.setPublishedTo(LocalDate.of(2022, 12, 31));
+        BulkWriteResponse response = bookService.deleteBooks(new BulkDeleteRequest(null, filter));
+
+        assertEquals(2, response.getAffected());
+        assertEquals(Arrays.asList("111", "444"), bookRepository.findAll().stream()
+                .map(Book::getIsbn).sorted().collect(Collectors.toList()));
+        assertThrows(BookNotFoundException.class, () -> bookService.getBookResponseByIsbn("222"));
+        assertTrue(bookNameIndex.suggest("streams", 10).isEmpty());
+    }
+
+    private void seedSearchBooks() {
+        bookRepository.saveAll(Arrays.asList(
+                new Book("Java Basics", "111", LocalDate.of(2019, 5, 1), 30.0, BookType.HARDCOVER),
+                new Book("Java Streams", "222", LocalDate.of(2021, 3, 1), 25.0, BookType.HARDCOVER),
+                new Book("Modern java", "333", LocalDate.of(2022, 7, 1), 15.0, BookType.EBOOK),
+                new Book("Kotlin in Action", "444", LocalDate.of(2023, 1, 1), 40.0, BookType.HARDCOVER)));
+    }
+
+    private static List<String> isbns(Slice<Book> slice) {
+        return slice.getContent().stream().map(Book::getIsbn).collect(Collectors.toList());
+    }
+
+    // Runs a test's action while Hibernate flushes an update, before the row is written
+    public static class FlushHook extends EmptyInterceptor {
+
+        static volatile Runnable beforeUpdate;
+
+        @Override
+        public boolean onFlushDirty(Object entity, Serializable id, Object[] currentState, Object[] previousState,
+                                    String[] propertyNames, Type[] types) {
+            Runnable action = beforeUpdate;
+            if (action != null) {
+                action.run();
+            }
+            return false;
+        }
+    }
+}
@@ -1,19 +1,48 @@
 package com.payu.assessment.bookcatalogue.service.impl;
 
+import com.payu.assessment.bookcatalogue.cache.BookResponseCache;
+import com.payu.assessment.bookcatalogue.dto.BookBatchResponse;
 import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookSearchCriteria;
+import com.payu.assessment.bookcatalogue.dto.BulkDeleteRequest;
+import com.payu.assessment.bookcatalogue.dto.BulkUpdateRequest;
+import com.payu.assessment.bookcatalogue.dto.CacheStatsResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
 import com.payu.assessment.bookcatalogue.exception.BookAlreadyExistsException;
 import com.payu.assessment.bookcatalogue.exception.BookNotFoundException;
+import com.payu.assessment.bookcatalogue.exception.InvalidRequestException;
+import com.payu.assessment.bookcatalogue.exception.PreconditionFailedException;
 import com.payu.assessment.bookcatalogue.model.Book;
 import com.payu.assessment.bookcatalogue.model.BookType;
 import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.store.BookStore;
 import com.payu.assessment.bookcatalogue.util.BookMapper;
+import com.payu.assessment.bookcatalogue.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,6 +50,9 @@ import static org.mockito.Mockito.*;
 class BookServiceImplTest {
 
     private BookRepository bookRepository;
+    private EntityManager entityManager;
+    private BookResponseCache bookResponseCache;
+    private ApplicationEventPublisher eventPublisher;
     private BookServiceImpl bookService;
     private Book book1;
     private Book book2;
@@ -29,7 +61,11 @@ class BookServiceImplTest {
     @BeforeEach
     void setUp() {
         bookRepository = mock(BookRepository.class);
-        bookService = new BookServiceImpl(bookRepository);
+        entityManager = mock(EntityManager.class);
+        bookResponseCache = new BookResponseCache(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        bookService = new BookServiceImpl(bookRepository, entityManager, bookResponseCache, eventPublisher,
+                mock(PlatformTransactionManager.class), null);
 
         book1 = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
         book2 = new Book("Book2", "222", testLocalDate, 189.99, BookType.SOFTCOVER);
@@ -39,15 +75,53 @@ class BookServiceImplTest {
 
     private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
 
-    // ----------------- getAllBooks -----------------
+    // ----------------- getBooksPage -----------------
+    @Test
+    void getBooksPage_noCursor_startsFromFirstIdAndDetectsNextPage() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(book1, book2)));
+
+        Slice<Book> result = bookService.getBooksPage(null, 1);
+
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals("Book1", result.getContent().get(0).getName());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    void getBooksPage_withCursor_queriesAfterCursorId() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(42L), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(Arrays.asList(book1, book2)));
+
+        Slice<Book> result = bookService.getBooksPage(CursorCodec.encode(42L), 10);
+
+        assertEquals(2, result.getNumberOfElements());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void getBooksPage_invalidSize_throwsException() {
+        assertThrows(InvalidRequestException.class, () -> bookService.getBooksPage(null, 0));
+        assertThrows(InvalidRequestException.class, () -> bookService.getBooksPage(null, 5000));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBooksPage_malformedCursor_throwsException() {
+        assertThrows(InvalidRequestException.class, () -> bookService.getBooksPage("not-a-cursor", 10));
+    }
+
+    // ----------------- streamAllBooks -----------------
     @Test
-    void getAllBooks_returnsAllBooks() {
-        when(bookRepository.findAll()).thenReturn(Arrays.asList(book1, book2));
+    void streamAllBooks_visitsAndDetachesEveryBook() {
+        when(bookRepository.streamAllByOrderByIdAsc()).thenReturn(Arrays.asList(book1, book2).stream());
 
-        List<Book> result = bookService.getAllBooks();
+        List<String> visited = new ArrayList<>();
+        bookService.streamAllBooks(book -> visited.add(book.getIsbn()));
 
-        assertEquals(2, result.size());
-        verify(bookRepository, times(1)).findAll();
+        assertEquals(Arrays.asList("111", "222"), visited);
+        verify(entityManager).detach(book1);
+        verify(entityManager).detach(book2);
     }
 
     // ----------------- getBookByIsbn -----------------
@@ -67,27 +141,218 @@ class BookServiceImplTest {
         assertThrows(BookNotFoundException.class, () -> bookService.getBookByIsbn("111"));
     }
 
+    // ----------------- getBookResponseByIsbn -----------------
+    @Test
+    void getBookResponseByIsbn_repeatedLookups_hitCacheAfterFirstLoad() {
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(book1));
+
+        BookResponse first = bookService.getBookResponseByIsbn("111");
+        BookResponse second = bookService.getBookResponseByIsbn("111");
+
+        assertEquals("Book1", first.getName());
+        assertSame(first, second);
+        verify(bookRepository, times(1)).findByIsbn("111");
+
+        CacheStatsResponse stats = bookService.getIsbnCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void getBookResponseByIsbn_readyStore_servesLookupsWithoutTheDatabase() {
+        BookStore bookStore = mock(BookStore.class);
+        when(bookStore.isReady()).thenReturn(true);
+        when(bookStore.findByIsbn("111")).thenReturn(Optional.of(BookMapper.toResponse(book1)));
+        when(bookStore.findByIsbn("999")).thenReturn(Optional.empty());
+        BookServiceImpl storeBacked = new BookServiceImpl(bookRepository, entityManager, bookResponseCache,
+                eventPublisher, mock(PlatformTransactionManager.class), bookStore);
+
+        assertEquals("Book1", storeBacked.getBookResponseByIsbn("111").getName());
+        assertThrows(BookNotFoundException.class, () -> storeBacked.getBookResponseByIsbn("999"));
+        assertEquals(Collections.singletonList("999"),
+                storeBacked.getBookResponsesByIsbns(Arrays.asList("111", "999")).getMissing());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBookResponseByIsbn_nonExistingIsbn_throwsAndCachesNothing() {
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.empty());
+
+        assertThrows(BookNotFoundException.class, () -> bookService.getBookResponseByIsbn("111"));
+        assertNull(bookResponseCache.get("111"));
+    }
 
-    // ----------------- addBook -----------------
     @Test
-    void addBook_uniqueIsbn_savesBook() {
-        when(bookRepository.existsByIsbn("111")).thenReturn(false);
+    void getBookResponseByIsbn_concurrentMisses_shareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findByIsbn("111")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(book1);
+        });
+
+        List<Future<BookResponse>> results = lookUpConcurrently("111", 8, release);
+
+        for (Future<BookResponse> result : results) {
+            assertEquals("Book1", result.get(5, TimeUnit.SECONDS).getName());
+        }
+        verify(bookRepository, times(1)).findByIsbn("111");
+    }
+
+    @Test
+    void getBookResponseByIsbn_concurrentMissesOnUnknownIsbn_allSeeNotFoundFromOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findByIsbn("404")).thenAnswer(invocation -> {
+            release.await();
+            return Optional.empty();
+        });
+
+        List<Future<BookResponse>> results = lookUpConcurrently("404", 8, release);
+
+        for (Future<BookResponse> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof BookNotFoundException);
+        }
+        verify(bookRepository, times(1)).findByIsbn("404");
+    }
+
+    @Test
+    void getBookResponseByIsbn_unknownIsbn_isRememberedUntilCreated() {
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.empty());
+        assertThrows(BookNotFoundException.class, () -> bookService.getBookResponseByIsbn("111"));
+        assertThrows(BookNotFoundException.class, () -> bookService.getBookResponseByIsbn("111"));
+        verify(bookRepository, times(1)).findByIsbn("111");
+
+        bookResponseCache.onBookChanged(BookChangedEvent.created(BookMapper.toResponse(book1)));
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(book1));
+
+        assertEquals("Book1", bookService.getBookResponseByIsbn("111").getName());
+        verify(bookRepository, times(2)).findByIsbn("111");
+    }
+
+    @Test
+    void getBookResponseByIsbn_missRacingCreate_isNotRemembered() {
+        when(bookRepository.findByIsbn("111")).thenAnswer(invocation -> {
+            // The create commits while the lookup that missed it is still returning
+            bookResponseCache.onBookChanged(BookChangedEvent.created(BookMapper.toResponse(book1)));
+            return Optional.empty();
+        });
+
+        assertThrows(BookNotFoundException.class, () -> bookService.getBookResponseByIsbn("111"));
+
+        assertFalse(bookResponseCache.isMissing("111"));
+    }
+
+    private List<Future<BookResponse>> lookUpConcurrently(String isbn, int callers, CountDownLatch release)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        List<Future<BookResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    threads.add(Thread.currentThread());
+                    return bookService.getBookResponseByIsbn(isbn);
+                }));
+            }
+            // Release the query only once every caller is blocked, on it or on the shared load
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (threads.size() < callers
+                    || threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING)) {
+                assertTrue(System.nanoTime() < deadline, "callers did not block");
+                Thread.sleep(5);
+            }
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // ----------------- getBookResponsesByIsbns -----------------
+    @Test
+    void getBookResponsesByIsbns_queriesOnlyUncachedIsbnsOnceAndReportsMissing() {
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(book1));
+        bookService.getBookResponseByIsbn("111");
+        when(bookRepository.findByIsbnIn(Arrays.asList("222", "333"))).thenReturn(Arrays.asList(book2));
+
+        BookBatchResponse result = bookService.getBookResponsesByIsbns(Arrays.asList("222", "111", "333", "222"));
+
+        assertEquals(Arrays.asList("222", "111"),
+                result.getBooks().stream().map(BookResponse::getIsbn).collect(Collectors.toList()));
+        assertEquals(Arrays.asList("333"), result.getMissing());
+        verify(bookRepository, times(1)).findByIsbnIn(anyCollection());
+        assertEquals("Book2", bookResponseCache.get("222").getName());
+    }
+
+    @Test
+    void getBookResponsesByIsbns_knownMissingIsbns_areNotQueriedAgain() {
+        bookService.getBookResponsesByIsbns(Arrays.asList("333", "444"));
+        when(bookRepository.findByIsbnIn(Arrays.asList("555"))).thenReturn(Collections.emptyList());
+
+        BookBatchResponse result = bookService.getBookResponsesByIsbns(Arrays.asList("333", "444", "555"));
+
+        assertEquals(Arrays.asList("333", "444", "555"), result.getMissing());
+        verify(bookRepository).findByIsbnIn(Arrays.asList("333", "444"));
+        verify(bookRepository).findByIsbnIn(Arrays.asList("555"));
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    void getBookResponsesByIsbns_largeRequest_isChunked() {
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i < BookServiceImpl.ISBN_QUERY_CHUNK + 1; i++) {
+            isbns.add("isbn-" + i);
+        }
+
+        BookBatchResponse result = bookService.getBookResponsesByIsbns(isbns);
 
+        assertEquals(isbns, result.getMissing());
+        verify(bookRepository, times(2)).findByIsbnIn(anyCollection());
+    }
+
+    @Test
+    void getBookResponsesByIsbns_tooManyIsbns_throwsException() {
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i <= BookServiceImpl.MAX_BATCH_ISBNS; i++) {
+            isbns.add("isbn-" + i);
+        }
+
+        assertThrows(InvalidRequestException.class, () -> bookService.getBookResponsesByIsbns(isbns));
+        verifyNoInteractions(bookRepository);
+    }
+
+    // ----------------- addBook -----------------
+    @Test
+    void addBook_uniqueIsbn_savesBookWithSingleStatement() {
         Book savedBook = BookMapper.fromRequest(request);
-        when(bookRepository.save(any(Book.class))).thenReturn(savedBook);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(savedBook);
 
         Book result = bookService.addBook(request);
 
         assertEquals("Book1", result.getName());
-        verify(bookRepository, times(1)).save(any(Book.class));
+        verify(bookRepository, times(1)).saveAndFlush(any(Book.class));
+        verify(bookRepository, never()).findByIsbn(anyString());
+        assertEquals("Book1", bookResponseCache.get("111").getName());
+        verify(eventPublisher).publishEvent(argThat((BookChangedEvent event) ->
+                event.getType() == BookChangedEvent.Type.CREATED && "Book1".equals(event.getCurrent().getName())));
     }
 
     @Test
     void addBook_existingIsbn_throwsException() {
-        when(bookRepository.existsByIsbn("111")).thenReturn(true);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenThrow(uniqueViolation());
 
         assertThrows(BookAlreadyExistsException.class, () -> bookService.addBook(request));
-        verify(bookRepository, never()).save(any(Book.class));
+        assertNull(bookResponseCache.get("111"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void addBook_otherConstraintViolation_isNotReportedAsDuplicate() {
+        when(bookRepository.saveAndFlush(any(Book.class)))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed",
+                        new SQLException("NULL not allowed for column", "23502")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookService.addBook(request));
     }
 
     // ----------------- updateBook -----------------
@@ -95,22 +360,49 @@ class BookServiceImplTest {
     void updateBook_existingBook_updatesFields() {
         Book existing = new Book("Old Book", "111", testLocalDate, 149.99, BookType.HARDCOVER);
         when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(existing));
-        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BookRequest request = new BookRequest("New Book", "111", testLocalDate.plusDays(1), 189.99, BookType.SOFTCOVER);
 
-        Book result = bookService.updateBookByIsbn("111", request);
+        Book result = bookService.updateBookByIsbn("111", request, null);
 
         assertEquals("New Book", result.getName());
         assertEquals("111", result.getIsbn());
         assertEquals(189.99, result.getPrice());
         assertEquals(BookType.SOFTCOVER, result.getBookType());
+        assertEquals("New Book", bookService.getBookResponseByIsbn("111").getName());
+        verify(bookRepository, times(1)).findByIsbn("111");
+        verify(eventPublisher).publishEvent(argThat((BookChangedEvent event) ->
+                event.getType() == BookChangedEvent.Type.UPDATED
+                        && "Old Book".equals(event.getPrevious().getName())
+                        && "New Book".equals(event.getCurrent().getName())));
     }
 
     @Test
     void updateBook_nonExistingBook_throwsException() {
         when(bookRepository.findById(1L)).thenReturn(Optional.empty());
-        assertThrows(BookNotFoundException.class, () -> bookService.updateBookByIsbn("111", request));
+        assertThrows(BookNotFoundException.class, () -> bookService.updateBookByIsbn("111", request, null));
+    }
+
+    @Test
+    void updateBook_matchingIfMatch_updates() {
+        Book existing = versioned(new Book("Old Book", "111", testLocalDate, 149.99, BookType.HARDCOVER), 5L, 2L);
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(existing));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book result = bookService.updateBookByIsbn("111", request, "\"5-1\", \"5-2\"");
+
+        assertEquals("Book1", result.getName());
+    }
+
+    @Test
+    void updateBook_staleIfMatch_throwsPreconditionFailedWithoutSaving() {
+        Book existing = versioned(new Book("Old Book", "111", testLocalDate, 149.99, BookType.HARDCOVER), 5L, 2L);
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(existing));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> bookService.updateBookByIsbn("111", request, "\"5-1\""));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
     }
 
     @Test
@@ -120,29 +412,131 @@ class BookServiceImplTest {
 
         BookRequest request = new BookRequest("Same Book", "111", testLocalDate, 149.99, BookType.HARDCOVER);
 
-        bookService.updateBookByIsbn("111", request);
+        bookService.updateBookByIsbn("111", request, null);
 
-        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
+        verifyNoInteractions(eventPublisher);
     }
 
 
+    // ----------------- upsertBook -----------------
+    @Test
+    void upsertBook_existingBook_updatesIt() {
+        Book existing = new Book("Old Book", "111", testLocalDate, 149.99, BookType.HARDCOVER);
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(existing));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book result = bookService.upsertBookByIsbn("111", request, null);
+
+        assertEquals("Book1", result.getName());
+        verify(bookRepository).saveAndFlush(existing);
+    }
+
+    @Test
+    void upsertBook_missingBook_insertsWithPathIsbn() {
+        when(bookRepository.findByIsbn("999")).thenReturn(Optional.empty());
+        when(bookRepository.saveAndFlush(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book result = bookService.upsertBookByIsbn("999", request, null);
+
+        assertEquals("999", result.getIsbn());
+        assertEquals("Book1", bookResponseCache.get("999").getName());
+    }
+
+    @Test
+    void upsertBook_missingBookWithIfMatch_throwsPreconditionFailed() {
+        when(bookRepository.findByIsbn("999")).thenReturn(Optional.empty());
+
+        assertThrows(PreconditionFailedException.class,
+                () -> bookService.upsertBookByIsbn("999", request, "\"1-0\""));
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
+    }
+
+    @Test
+    void upsertBook_concurrentInsert_fallsBackToUpdate() {
+        Book concurrent = new Book("Other Writer", "111", testLocalDate, 1.0, BookType.EBOOK);
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.empty(), Optional.of(concurrent));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenThrow(uniqueViolation())
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book result = bookService.upsertBookByIsbn("111", request, null);
+
+        assertSame(concurrent, result);
+        assertEquals("Book1", result.getName());
+        assertEquals(149.99, result.getPrice());
+    }
+
     // ----------------- deleteBook -----------------
     @Test
     void deleteBook_existingBook_deletesBook() {
         Book existing = new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER);
         when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(existing));
-        when(bookRepository.existsByIsbn("111")).thenReturn(true);
 
-        bookService.deleteBookByIsbn("111");
+        bookService.getBookResponseByIsbn("111");
 
-        verify(bookRepository, times(1)).deleteByIsbn("111");
+        bookService.deleteBookByIsbn("111", null);
+
+        verify(bookRepository, times(1)).delete(existing);
+        assertNull(bookResponseCache.get("111"));
+        verify(eventPublisher).publishEvent(argThat((BookChangedEvent event) ->
+                event.getType() == BookChangedEvent.Type.DELETED && "111".equals(event.getPrevious().getIsbn())));
     }
 
     @Test
     void deleteBook_nonExistingBook_throwsException() {
         when(bookRepository.findByIsbn("111")).thenReturn(Optional.empty());
 
-        assertThrows(BookNotFoundException.class, () -> bookService.deleteBookByIsbn("111"));
+        assertThrows(BookNotFoundException.class, () -> bookService.deleteBookByIsbn("111", null));
     }
-}
 
+    @Test
+    void deleteBook_staleIfMatch_throwsPreconditionFailed() {
+        Book existing = versioned(new Book("Book1", "111", testLocalDate, 149.99, BookType.HARDCOVER), 5L, 2L);
+        when(bookRepository.findByIsbn("111")).thenReturn(Optional.of(existing));
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.deleteBookByIsbn("111", "\"5-1\""));
+        verify(bookRepository, never()).delete(any(Book.class));
+    }
+
+    @Test
+    void updateBooks_invalidRequests_throwException() {
+        BookSearchCriteria filter = new BookSearchCriteria();
+        filter.setBookType(BookType.EBOOK);
+        List<String> isbns = Collections.singletonList("111");
+
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.updateBooks(new BulkUpdateRequest(isbns, null, null, null, null, null)));
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.updateBooks(new BulkUpdateRequest(isbns, null, 10.0, 5.0, null, null)));
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.updateBooks(new BulkUpdateRequest(isbns, null, null, -100.0, null, null)));
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.updateBooks(new BulkUpdateRequest(isbns, filter, 10.0, null, null, null)));
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.updateBooks(new BulkUpdateRequest(null, new BookSearchCriteria(), 10.0, null, null, null)));
+        verify(bookRepository, never()).updateByIds(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void deleteBooks_tooManyIsbns_throwsException() {
+        List<String> isbns = new ArrayList<>();
+        for (int i = 0; i <= BookServiceImpl.MAX_BULK_ISBNS; i++) {
+            isbns.add("isbn-" + i);
+        }
+
+        assertThrows(InvalidRequestException.class,
+                () -> bookService.deleteBooks(new BulkDeleteRequest(isbns, null)));
+        verify(bookRepository, never()).deleteByIds(any());
+    }
+
+    private Book versioned(Book book, Long id, Long version) {
+        book.setId(id);
+        book.setVersion(version);
+        return book;
+    }
+
+    private DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation", "23505"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.payu.assessment.bookcatalogue.stats;
+
+import com.payu.assessment.bookcatalogue.dto.BookRequest;
+import com.payu.assessment.bookcatalogue.dto.BookStatsResponse;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookStatisticsIntegrationTest {
+
+    @Autowired
+    private BookStatistics bookStatistics;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository.deleteAllInBatch();
+        bookStatistics.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+        bookStatistics.reconcile();
+    }
+
+    @Test
+    void getStats_followsAddsUpdatesAndDeletes() {
+        bookService.addBook(new BookRequest("Book1", "111", LocalDate.of(2020, 1, 1), 10.0, BookType.EBOOK));
+        bookService.addBook(new BookRequest("Book2", "222", LocalDate.of(2020, 6, 1), 20.01, BookType.EBOOK));
+        bookService.addBook(new BookRequest("Book3", "333", LocalDate.of(2024, 1, 1), 30.0, BookType.HARDCOVER));
+
+        BookStatsResponse stats = bookStatistics.getStats();
+        assertEquals(3, stats.getBooks());
+        assertEquals(2L, stats.getBooksByType().get(BookType.EBOOK));
+        assertEquals(0L, stats.getBooksByType().get(BookType.AUDIOBOOK));
+        assertEquals(10.0, stats.getMinPrice());
+        assertEquals(30.0, stats.getMaxPrice());
+        assertEquals(20.0, stats.getAveragePrice());
+        assertEquals(2L, stats.getBooksByPublishYear().get(2020));
+
+        bookService.updateBookByIsbn("333", new BookRequest("Book3", "333", LocalDate.of(2025, 1, 1), 5.0, BookType.EBOOK), null);
+        bookService.deleteBookByIsbn("111", null);
+
+        stats = bookStatistics.getStats();
+        assertEquals(2, stats.getBooks());
+        assertEquals(2L, stats.getBooksByType().get(BookType.EBOOK));
+        assertEquals(0L, stats.getBooksByType().get(BookType.HARDCOVER));
+        assertEquals(5.0, stats.getMinPrice());
+        assertEquals(20.01, stats.getMaxPrice());
+        assertEquals(12.51, stats.getAveragePrice());
+        assertEquals(1L, stats.getBooksByPublishYear().get(2020));
+        assertFalse(stats.getBooksByPublishYear().containsKey(2024));
+        assertEquals(1L, stats.getBooksByPublishYear().get(2025));
+    }
+
+    @Test
+    void reconcile_correctsWritesThatBypassedTheService() {
+        bookService.addBook(new BookRequest("Book1", "111", LocalDate.of(2020, 1, 1), 10.0, BookType.EBOOK));
+        bookRepository.save(new Book("Book2", "222", LocalDate.of(2021, 1, 1), 50.0, BookType.AUDIOBOOK));
+        assertEquals(1, bookStatistics.getStats().getBooks());
+
+        bookStatistics.reconcile();
+
+        BookStatsResponse stats = bookStatistics.getStats();
+        assertEquals(2, stats.getBooks());
+        assertEquals(1L, stats.getBooksByType().get(BookType.AUDIOBOOK));
+        assertEquals(50.0, stats.getMaxPrice());
+        assertEquals(30.0, stats.getAveragePrice());
+        assertNotNull(stats.getReconciledAt());
+    }
+}
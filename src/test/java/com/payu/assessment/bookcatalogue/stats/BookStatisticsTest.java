@@ -0,0 +1,71 @@
+package com.payu.assessment.bookcatalogue.stats;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.dto.BookStatsResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookStatisticsTest {
+
+    private BookRepository bookRepository;
+    private BookStatistics bookStatistics;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        ChangeSequenceRepository changeSequenceRepository = mock(ChangeSequenceRepository.class);
+        when(changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES))
+                .thenReturn(Optional.of(new ChangeSequence(ChangeSequence.BOOK_CHANGES, 5)));
+        when(bookRepository.countByPublishYear()).thenReturn(Collections.emptyList());
+        when(bookRepository.sumPrices()).thenReturn(rows(new Object[]{1L, 10.0}));
+        when(bookRepository.findPriceRange()).thenReturn(rows(new Object[]{10.0, 10.0}));
+        bookStatistics = new BookStatistics(bookRepository, changeSequenceRepository,
+                mock(PlatformTransactionManager.class), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void reconcile_replaysOnlyChangesCommittedAfterTheSnapshot() {
+        // Both changes are delivered while the snapshot is read; only the one numbered past it is new to it
+        when(bookRepository.countByBookType()).thenAnswer(invocation -> {
+            bookStatistics.onBookChanged(created(1L, "111", 10.0, 5));
+            bookStatistics.onBookChanged(created(2L, "222", 30.0, 6));
+            return rows(new Object[]{BookType.EBOOK, 1L});
+        });
+
+        bookStatistics.reconcile();
+
+        BookStatsResponse stats = bookStatistics.getStats();
+        assertEquals(2, stats.getBooks());
+        assertEquals(2L, stats.getBooksByType().get(BookType.EBOOK));
+        assertEquals(10.0, stats.getMinPrice());
+        assertEquals(30.0, stats.getMaxPrice());
+        assertEquals(20.0, stats.getAveragePrice());
+        verify(bookRepository, times(1)).findPriceRange();
+    }
+
+    private static BookChangedEvent created(Long id, String isbn, Double price, long seq) {
+        BookChangedEvent event = BookChangedEvent.created(new BookResponse("Book" + id, isbn,
+                LocalDate.of(2025, 10, 24), price, BookType.EBOOK, id, 0L, null));
+        event.setSeq(seq);
+        return event;
+    }
+
+    private static List<Object[]> rows(Object[] row) {
+        return Collections.singletonList(row);
+    }
+}
@@ -0,0 +1,268 @@
+package com.payu.assessment.bookcatalogue.store;
+
+import com.payu.assessment.bookcatalogue.dto.BookResponse;
+import com.payu.assessment.bookcatalogue.event.BookChangedEvent;
+import com.payu.assessment.bookcatalogue.model.Book;
+import com.payu.assessment.bookcatalogue.model.BookChange;
+import com.payu.assessment.bookcatalogue.model.BookType;
+import com.payu.assessment.bookcatalogue.model.ChangeSequence;
+import com.payu.assessment.bookcatalogue.repository.BookChangeRepository;
+import com.payu.assessment.bookcatalogue.repository.BookRepository;
+import com.payu.assessment.bookcatalogue.repository.ChangeSequenceRepository;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ColumnarBookStoreTest {
+
+    private BookRepository bookRepository;
+    private BookChangeRepository bookChangeRepository;
+    private ChangeSequenceRepository changeSequenceRepository;
+    private EntityManagerFactory entityManagerFactory;
+    private ColumnarBookStore store;
+
+    @TempDir
+    Path snapshotDir;
+
+    private final LocalDate testLocalDate = LocalDate.of(2025, 10, 24);
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        bookChangeRepository = mock(BookChangeRepository.class);
+        changeSequenceRepository = mock(ChangeSequenceRepository.class);
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class));
+        store = store("");
+    }
+
+    @Test
+    void findByIsbn_returnsEveryFieldAsStored() {
+        Instant updatedAt = Instant.parse("2025-10-24T09:15:00.123Z");
+        store.onBookChanged(BookChangedEvent.created(
+                new BookResponse("Ünïcode Title", "111", testLocalDate, 149.99, BookType.AUDIOBOOK, 7L, 3L, updatedAt)));
+
+        BookResponse book = store.findByIsbn("111").get();
+
+        assertEquals("Ünïcode Title", book.getName());
+        assertEquals(testLocalDate, book.getPublishDate());
+        assertEquals(149.99, book.getPrice());
+        assertEquals(BookType.AUDIOBOOK, book.getBookType());
+        assertEquals(7L, book.getId());
+        assertEquals(3L, book.getVersion());
+        assertEquals(updatedAt, book.getUpdatedAt());
+        assertFalse(store.findByIsbn("222").isPresent());
+    }
+
+    @Test
+    void onBookChanged_growsPastInitialCapacityAndKeepsEveryBook() {
+        for (int i = 1; i <= 1000; i++) {
+            store.onBookChanged(BookChangedEvent.created(book(i, "isbn-" + i, "Book " + i, 0L)));
+        }
+
+        assertEquals(1000, store.size());
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals("Book " + i, store.findByIsbn("isbn-" + i).get().getName());
+        }
+        assertTrue(store.bytesUsed() / store.size() < 200);
+    }
+
+    @Test
+    void onBookChanged_updateOverwritesInPlaceAndDeleteRemovesIt() {
+        BookResponse original = book(1, "111", "Book1", 0L);
+        store.onBookChanged(BookChangedEvent.created(original));
+
+        // Longer than the string heap the store starts with, so the columns grow under the update
+        String longName = String.join(" ", Collections.nCopies(60, "Renamed"));
+        BookResponse updated = book(1, "111", longName, 1L);
+        store.onBookChanged(BookChangedEvent.updated(original, updated));
+
+        assertEquals(longName, store.findByIsbn("111").get().getName());
+        assertEquals(1, store.size());
+
+        store.onBookChanged(BookChangedEvent.deleted(updated));
+
+        assertFalse(store.findByIsbn("111").isPresent());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void onBookChanged_olderVersionDeliveredLate_isIgnored() {
+        BookResponse original = book(1, "111", "Book1", 0L);
+        store.onBookChanged(BookChangedEvent.created(original));
+        store.onBookChanged(BookChangedEvent.updated(original, book(1, "111", "Newest", 2L)));
+
+        store.onBookChanged(BookChangedEvent.updated(original, book(1, "111", "Older", 1L)));
+
+        assertEquals("Newest", store.findByIsbn("111").get().getName());
+    }
+
+    @Test
+    void load_copiesTheTableAndSkipsRowsChangedMeanwhile() {
+        Book first = stored(1L, "111", "Book1");
+        Book second = stored(2L, "222", "Book2");
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            // Book2 is deleted after the page was read but before it is applied
+            store.onBookChanged(BookChangedEvent.deleted(book(2, "222", "Book2", 0L)));
+            return Arrays.asList(first, second);
+        });
+
+        assertFalse(store.isReady());
+        store.load();
+
+        assertTrue(store.isReady());
+        assertEquals("Book1", store.findByIsbn("111").get().getName());
+        assertFalse(store.findByIsbn("222").isPresent());
+        verify(bookRepository).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void load_emptyTable_isReady() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        store.load();
+
+        assertTrue(store.isReady());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void mapSnapshot_servesTheWrittenTableBeforeAnyLoad() {
+        Path file = snapshotDir.resolve("books.snapshot");
+        writeSnapshot(file, 5L, stored(1L, "111", "Book1"), stored(2L, "222", "Ünïcode"));
+
+        ColumnarBookStore restarted = store(file.toString());
+
+        assertFalse(restarted.isReady());
+        assertEquals(5L, restarted.mapSnapshot());
+        assertTrue(restarted.isReady());
+        assertEquals("Book1", restarted.findByIsbn("111").get().getName());
+        assertEquals("Ünïcode", restarted.findByIsbn("222").get().getName());
+        assertEquals(2L, restarted.findByIsbn("222").get().getId());
+        assertFalse(restarted.findByIsbn("333").isPresent());
+        assertFalse(Files.exists(snapshotDir.resolve("books.snapshot.tmp")));
+    }
+
+    @Test
+    void catchUp_replaysChangesLoggedAfterTheSnapshot() {
+        Path file = snapshotDir.resolve("books.snapshot");
+        writeSnapshot(file, 5L, stored(1L, "111", "Book1"), stored(2L, "222", "Book2"));
+        ColumnarBookStore restarted = store(file.toString());
+        long snapshotSeq = restarted.mapSnapshot();
+
+        BookChange deleted = new BookChange(6L, BookChangedEvent.Type.DELETED, 1L, "111", Instant.now());
+        BookChange updated = new BookChange(7L, BookChangedEvent.Type.UPDATED, 2L, "222", Instant.now());
+        updated.setName("Updated");
+        updated.setVersion(1L);
+        when(changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES))
+                .thenReturn(Optional.of(new ChangeSequence(ChangeSequence.BOOK_CHANGES, 7L)));
+        when(bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(5L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(deleted, updated));
+        // An old create replayed after the snapshot already holds the book changes nothing
+        restarted.onBookChanged(BookChangedEvent.replicated(BookChangedEvent.Type.CREATED, null, book(2, "222", "Book2", 0L)));
+
+        restarted.catchUp(snapshotSeq);
+
+        assertFalse(restarted.findByIsbn("111").isPresent());
+        assertEquals("Updated", restarted.findByIsbn("222").get().getName());
+        verify(bookRepository, never()).findByIdGreaterThanOrderByIdAsc(eq(0L), argThat(page -> page.getPageSize() > 1));
+    }
+
+    @Test
+    void catchUp_logPrunedPastTheSnapshot_reloadsTheTable() {
+        Path file = snapshotDir.resolve("books.snapshot");
+        writeSnapshot(file, 5L, stored(1L, "111", "Book1"), stored(2L, "222", "Book2"));
+        ColumnarBookStore restarted = store(file.toString());
+        long snapshotSeq = restarted.mapSnapshot();
+
+        when(changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES))
+                .thenReturn(Optional.of(new ChangeSequence(ChangeSequence.BOOK_CHANGES, 40L)));
+        when(bookChangeRepository.findBySeqGreaterThanOrderBySeqAsc(eq(5L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(new BookChange(31L, BookChangedEvent.Type.DELETED, 3L, "333", Instant.now())));
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(stored(2L, "222", "Book2")));
+
+        restarted.catchUp(snapshotSeq);
+
+        assertFalse(restarted.findByIsbn("111").isPresent());
+        assertEquals("Book2", restarted.findByIsbn("222").get().getName());
+        assertEquals(1, restarted.size());
+    }
+
+    @Test
+    void mapSnapshot_corruptFile_isIgnored() throws IOException {
+        Path file = snapshotDir.resolve("books.snapshot");
+        writeSnapshot(file, 5L, stored(1L, "111", "Book1"));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        ColumnarBookStore restarted = store(file.toString());
+
+        assertEquals(-1L, restarted.mapSnapshot());
+        assertFalse(restarted.isReady());
+    }
+
+    @Test
+    void mapSnapshot_slotTableWithoutRoom_isRejected() throws IOException {
+        Path file = snapshotDir.resolve("books.snapshot");
+        writeSnapshot(file, 5L, stored(1L, "111", "Book1"));
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        int slotCount = bytes.getInt(24);
+        // Claims as many rows as slots, padded so the length still matches what the header describes
+        ByteBuffer full = ByteBuffer.allocate(bytes.capacity() + (slotCount - 1) * 45).order(ByteOrder.LITTLE_ENDIAN);
+        full.put(bytes);
+        full.putInt(12, slotCount);
+        Files.write(file, full.array());
+
+        ColumnarBookStore restarted = store(file.toString());
+
+        assertEquals(-1L, restarted.mapSnapshot());
+        assertFalse(restarted.isReady());
+    }
+
+    private void writeSnapshot(Path file, long seq, Book... books) {
+        when(changeSequenceRepository.findById(ChangeSequence.BOOK_CHANGES))
+                .thenReturn(Optional.of(new ChangeSequence(ChangeSequence.BOOK_CHANGES, seq)));
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(books));
+        store(file.toString()).writeSnapshot();
+        reset(bookRepository);
+        reset(changeSequenceRepository);
+    }
+
+    private ColumnarBookStore store(String snapshotPath) {
+        return new ColumnarBookStore(bookRepository, bookChangeRepository, changeSequenceRepository,
+                null, null, null, entityManagerFactory, 4, snapshotPath, false);
+    }
+
+    private BookResponse book(long id, String isbn, String name, long version) {
+        return new BookResponse(name, isbn, testLocalDate, 10.0, BookType.EBOOK, id, version, null);
+    }
+
+    private Book stored(Long id, String isbn, String name) {
+        Book book = new Book(name, isbn, testLocalDate, 10.0, BookType.EBOOK);
+        book.setId(id);
+        book.setVersion(0L);
+        return book;
+    }
+}